@@ -0,0 +1,63 @@
+package com.minesweeper;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the word-at-a-time adjacency pass of {@link AdjacencyCounter} with counting the
+ * neighbours of each cell separately. The counts are ORed into the cells, so both benchmarks
+ * start by copying the same mine layout over the previous result; the copy is a small, equal
+ * share of each.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AdjacencyBenchmark {
+    @Param({"16", "256", "2048"})
+    public int size;
+
+    private byte[] mines;
+    private byte[] cells;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        mines = new byte[size * size];
+        for (int i = 0; i < mines.length; i++) {
+            if (random.nextDouble() < 0.2) {
+                mines[i] = Cell.MINE;
+            }
+        }
+        cells = new byte[mines.length];
+    }
+
+    @Benchmark
+    public byte[] slidingWindow() {
+        System.arraycopy(mines, 0, cells, 0, mines.length);
+        AdjacencyCounter.count(cells, size, size);
+        return cells;
+    }
+
+    @Benchmark
+    public byte[] perCell() {
+        System.arraycopy(mines, 0, cells, 0, mines.length);
+        AdjacencyCounter.countPerCell(cells, size, size);
+        return cells;
+    }
+}
@@ -0,0 +1,49 @@
+package com.minesweeper;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Board#create} across board sizes and mine densities.
+ * The generator is reseeded for every iteration so runs draw the same layouts.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardCreateBenchmark {
+    @Param({"9", "16", "26"})
+    public int size;
+
+    @Param({"0.12", "0.20", "0.35"})
+    public double density;
+
+    private int mineCount;
+    private SplittableRandom random;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        mineCount = Math.max(1, (int) (size * size * density));
+        random = new SplittableRandom(42);
+    }
+
+    @Benchmark
+    public Board create() {
+        return Board.create(size, mineCount, random);
+    }
+}
@@ -0,0 +1,44 @@
+package com.minesweeper;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures neighbour lookup and move parsing.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PositionBenchmark {
+    private final Position center = new Position(12, 12);
+    private final Position corner = new Position(0, 0);
+    private final Game game = new Game();
+    private final String input = "M13";
+
+    @Benchmark
+    public Position[] adjacentPositionsCenter() {
+        return center.getAdjacentPositions(26);
+    }
+
+    @Benchmark
+    public Position[] adjacentPositionsCorner() {
+        return corner.getAdjacentPositions(26);
+    }
+
+    @Benchmark
+    public Position parsePosition() {
+        return game.parsePosition(input, 26);
+    }
+}
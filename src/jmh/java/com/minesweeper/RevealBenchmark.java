@@ -0,0 +1,85 @@
+package com.minesweeper;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures moves and views on seeded boards. Boards are immutable, so every invocation
+ * starts from the same state.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RevealBenchmark {
+    @Param({"9", "16", "26"})
+    public int size;
+
+    private Board denseBoard;
+    private Position numberedCell;
+    private Board emptyBoard;
+    private Position zeroCell;
+    private Board indexedBoard;
+
+    @Setup
+    public void setUp() {
+        denseBoard = Board.create(size, (int) (size * size * 0.2), 42L);
+        numberedCell = find(denseBoard, false);
+        // A single mine leaves one connected opening covering almost the whole board
+        emptyBoard = Board.create(size, 1, 42L);
+        zeroCell = find(emptyBoard, true);
+        // Same layout with its openings indexed, so the cascade is a bulk reveal
+        indexedBoard = Board.create(size, 1, 42L);
+        indexedBoard.get3BV();
+    }
+
+    private static Position find(Board board, boolean zero) {
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getColumns(); c++) {
+                Cell cell = board.getCell(new Position(r, c));
+                if (!cell.isMine() && (cell.getAdjacentMines() == 0) == zero) {
+                    return new Position(r, c);
+                }
+            }
+        }
+        throw new IllegalStateException("No matching cell");
+    }
+
+    @Benchmark
+    public Board revealSingleCell() {
+        return denseBoard.reveal(numberedCell);
+    }
+
+    @Benchmark
+    public Board revealCascade() {
+        return emptyBoard.reveal(zeroCell);
+    }
+
+    @Benchmark
+    public Board revealCascadeIndexed() {
+        return indexedBoard.reveal(zeroCell);
+    }
+
+    @Benchmark
+    public Cell[][] deepCopyGrid() {
+        return denseBoard.deepCopyGrid();
+    }
+
+    @Benchmark
+    public String render() {
+        return denseBoard.toString();
+    }
+}
@@ -0,0 +1,128 @@
+package com.minesweeper;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * Measures concurrent reveals on one shared session, lock-free against a single mutex, and on
+ * one session per thread. Run with several thread counts to see the scaling, e.g.
+ * {@code java -jar target/benchmarks.jar SessionContention -t 1} and again with -t 2, 4, 8.
+ * <p>
+ * Every thread reveals its own share of the safe numbered cells, so moves are disjoint and
+ * never end the game. A thread that has gone through its share puts the board back to its
+ * initial state, so reveals keep doing real work.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionContentionBenchmark {
+    private static final int SIZE = 2_000;
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        Board initial;
+        int[] cells;
+        SessionRegistry registry;
+        String session;
+        Board lockedBoard;
+        final Object lock = new Object();
+        final AtomicInteger nextThread = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void createBoard() {
+            initial = new Board.Builder(SIZE, SIZE).setMineCount((int) (SIZE * SIZE * 0.3)).setSeed(42L).build();
+            int count = 0;
+            int[] found = new int[SIZE * SIZE];
+            for (int i = 0; i < SIZE * SIZE; i++) {
+                Cell cell = initial.getCell(new Position(i / SIZE, i % SIZE));
+                if (!cell.isMine() && cell.getAdjacentMines() > 0) {
+                    found[count++] = i;
+                }
+            }
+            cells = Arrays.copyOf(found, count);
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            registry = new SessionRegistry();
+            session = registry.add(initial);
+            lockedBoard = initial;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Player {
+        int thread;
+        int threads;
+        int next;
+        boolean wrapped;
+        String ownSession;
+
+        @Setup(Level.Iteration)
+        public void reset(Shared shared, BenchmarkParams params) {
+            threads = params.getThreads();
+            thread = shared.nextThread.getAndIncrement() % threads;
+            next = thread;
+            ownSession = shared.registry.add(shared.initial);
+        }
+
+        Position nextCell(Shared shared) {
+            int index = shared.cells[next];
+            next += threads;
+            if (next >= shared.cells.length) {
+                next = thread;
+                wrapped = true;
+            }
+            return new Position(index / SIZE, index % SIZE);
+        }
+    }
+
+    @Benchmark
+    public Board sharedSessionLockFree(Shared shared, Player player) {
+        Position position = player.nextCell(shared);
+        if (player.wrapped) {
+            player.wrapped = false;
+            shared.registry.update(shared.session, board -> shared.initial);
+        }
+        return shared.registry.reveal(shared.session, position);
+    }
+
+    @Benchmark
+    public Board sharedSessionMutex(Shared shared, Player player) {
+        Position position = player.nextCell(shared);
+        synchronized (shared.lock) {
+            if (player.wrapped) {
+                player.wrapped = false;
+                shared.lockedBoard = shared.initial;
+            }
+            shared.lockedBoard = shared.lockedBoard.reveal(position);
+            return shared.lockedBoard;
+        }
+    }
+
+    @Benchmark
+    public Board sessionPerThread(Shared shared, Player player) {
+        Position position = player.nextCell(shared);
+        if (player.wrapped) {
+            player.wrapped = false;
+            shared.registry.update(player.ownSession, board -> shared.initial);
+        }
+        return shared.registry.reveal(player.ownSession, position);
+    }
+}
@@ -0,0 +1,47 @@
+package com.minesweeper;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares generating the cells of a large board serially with the banded generation of
+ * {@link TiledGenerator} on the common pool. Set the pool's size with
+ * {@code -Djava.util.concurrent.ForkJoinPool.common.parallelism=N} (through {@code -jvmArgs})
+ * to see how it scales with cores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TiledGenerationBenchmark {
+    @Param({"1024", "4096"})
+    public int size;
+
+    private long seed;
+
+    @Benchmark
+    public byte[] serial() {
+        byte[] cells = new byte[size * size];
+        Board.placeMines(cells, size * size / 5, new SplittableRandom(seed++));
+        Board.calculateAdjacentMines(cells, size, size);
+        return cells;
+    }
+
+    @Benchmark
+    public byte[] tiled() {
+        return TiledGenerator.generate(size, size, size * size / 5, seed++, new int[0]);
+    }
+}
@@ -0,0 +1,113 @@
+package com.minesweeper;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Computes the adjacent mine count of every cell in a packed cell array in one pass.
+ * <p>
+ * Works row by row on a byte plane of mine flags (0 or 1), padded with a zero column on each
+ * side. The three rows around the current one are added column-wise, then each count is the
+ * sum of three neighbouring column sums minus the cell's own mine flag. Both additions run on
+ * eight cells at a time as the bytes of a long (no byte can carry: column sums are at most 3
+ * and counts at most 9), and a scalar loop handles the last columns of each row that do not
+ * fill a long.
+ */
+final class AdjacencyCounter {
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long LOW_BITS = 0x0101010101010101L;
+
+    private AdjacencyCounter() {
+    }
+
+    /**
+     * ORs each cell's adjacent mine count into its low bits; the counts must still be zero.
+     */
+    static void count(byte[] cells, int rows, int columns) {
+        count(cells, rows, columns, 0, rows);
+    }
+
+    /**
+     * Counts only the rows in [fromRow, toRow), reading the mine flags of one halo row on each
+     * side. Bands of rows can be counted concurrently once every mine is placed, since a band
+     * only writes its own rows and the counts never touch the mine bits its neighbours read.
+     */
+    static void count(byte[] cells, int rows, int columns, int fromRow, int toRow) {
+        // One padding column on each side plus slack for the last long read
+        int width = columns + 2 + Long.BYTES;
+        byte[] above = new byte[width];
+        byte[] current = new byte[width];
+        byte[] below = new byte[width];
+        byte[] sums = new byte[width];
+        if (fromRow > 0) {
+            loadMines(cells, (fromRow - 1) * columns, columns, above);
+        }
+        loadMines(cells, fromRow * columns, columns, current);
+        for (int row = fromRow; row < toRow; row++) {
+            if (row + 1 < rows) {
+                loadMines(cells, (row + 1) * columns, columns, below);
+            } else {
+                Arrays.fill(below, (byte) 0);
+            }
+            for (int i = 0; i < columns + 2; i += Long.BYTES) {
+                LONGS.set(sums, i, getLong(above, i) + getLong(current, i) + getLong(below, i));
+            }
+            // Column c of the row is at index c + 1 of the padded planes
+            int base = row * columns;
+            int c = 0;
+            for (; c + Long.BYTES <= columns; c += Long.BYTES) {
+                long counts = getLong(sums, c) + getLong(sums, c + 1) + getLong(sums, c + 2) - getLong(current, c + 1);
+                LONGS.set(cells, base + c, getLong(cells, base + c) | counts);
+            }
+            for (; c < columns; c++) {
+                cells[base + c] |= (byte) (sums[c] + sums[c + 1] + sums[c + 2] - current[c + 1]);
+            }
+            byte[] recycled = above;
+            above = current;
+            current = below;
+            below = recycled;
+        }
+    }
+
+    /**
+     * Reference implementation that counts the neighbours of each cell separately. Kept for
+     * tests and as the baseline of {@code AdjacencyBenchmark}.
+     */
+    static void countPerCell(byte[] cells, int rows, int columns) {
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                cells[row * columns + col] |= (byte) countAdjacentMines(cells, rows, columns, row, col);
+            }
+        }
+    }
+
+    private static int countAdjacentMines(byte[] cells, int rows, int columns, int row, int col) {
+        int count = 0;
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(columns - 1, col + 1); c++) {
+                if ((r != row || c != col) && (cells[r * columns + c] & Cell.MINE) != 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    // Writes the row's mine flags to mines[1..columns]
+    private static void loadMines(byte[] cells, int base, int columns, byte[] mines) {
+        int shift = Integer.numberOfTrailingZeros(Cell.MINE);
+        int c = 0;
+        for (; c + Long.BYTES <= columns; c += Long.BYTES) {
+            LONGS.set(mines, c + 1, (getLong(cells, base + c) >>> shift) & LOW_BITS);
+        }
+        for (; c < columns; c++) {
+            mines[c + 1] = (byte) ((cells[base + c] >>> shift) & 1);
+        }
+    }
+
+    private static long getLong(byte[] bytes, int index) {
+        return (long) LONGS.get(bytes, index);
+    }
+}
@@ -1,194 +1,815 @@
 package com.minesweeper;
 
+import com.minesweeper.solver.NoGuessGenerator;
+
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents the Minesweeper game board and its logic.
+ * Cells are stored packed, one byte per cell in row-major order (see {@link Cell#MINE},
+ * {@link Cell#REVEALED} and {@link Cell#ADJACENT_MASK}); {@link Cell} objects are only
+ * created on demand when a caller asks for one. The bytes live in a persistent
+ * {@link CellStore}, so a move copies only the parts of the grid it touches and earlier
+ * boards remain valid.
  */
 public class Board {
-	private static final int MAX_SIZE = 26; // A-Z
+	static final int MIN_SIZE = 2;
+	static final long MAX_CELLS = Integer.MAX_VALUE - 8; // Largest byte[] the VM allows
 	private static final double MAX_MINE_PERCENTAGE = 0.35;
+	private static final int[] NO_CELLS = new int[0];
+	/**
+	 * Version of the mapping from seed to mine layout in {@link Builder#build()}, including the
+	 * switch to banded generation for large boards. Stores that rebuild boards from seeds record
+	 * it; bump it with any change that gives a seed a different layout.
+	 */
+	static final int LAYOUT_VERSION = 1;
 
-	private final int size;
-	private final Cell[][] grid;
+	private final int rows;
+	private final int columns;
+	private final CellStore cells;
+	private final int mineCount;
 	private final GameState gameState;
-	private final Random random;
+	private final RandomGenerator random;
+	// Seed the mine layout was drawn from, if known
+	private final OptionalLong seed;
+	// Safe cells still hidden; the game is won when this reaches zero
+	private final int hiddenSafeCells;
+	// Linear indices of the cells revealed, flagged or unflagged by the move that produced this board
+	private final int[] changedCells;
+	// Openings of the mine layout, built on first use and shared by every version of the game
+	private final AtomicReference<ZeroRegions> regions;
+
+	public Board(int size, Cell[][] grid, GameState gameState, RandomGenerator random) {
+		this(size, size, grid, gameState, random);
+	}
+
+	public Board(int rows, int columns, Cell[][] grid, GameState gameState, RandomGenerator random) {
+		this(rows, columns, pack(rows, columns, grid), gameState, random);
+	}
 
-	public Board(int size, Cell[][] grid, GameState gameState, Random random) {
-		this.size = size;
-		this.grid = grid;
+	private Board(int rows, int columns, byte[] cells, GameState gameState, RandomGenerator random) {
+		this(rows, columns, CellStore.of(cells), countMines(cells), gameState, random, OptionalLong.empty(),
+			countHiddenSafeCells(cells), NO_CELLS, new AtomicReference<>());
+	}
+
+	private Board(int rows, int columns, CellStore cells, int mineCount, GameState gameState,
+			RandomGenerator random, OptionalLong seed, int hiddenSafeCells, int[] changedCells,
+			AtomicReference<ZeroRegions> regions) {
+		this.rows = rows;
+		this.columns = columns;
+		this.cells = cells;
+		this.mineCount = mineCount;
 		this.gameState = gameState;
 		this.random = random;
+		this.seed = seed;
+		this.hiddenSafeCells = hiddenSafeCells;
+		this.changedCells = changedCells;
+		this.regions = regions;
 	}
 
 	/**
-	 * Creates a new board with randomly placed mines.
+	 * Creates a new square board with randomly placed mines.
 	 */
 	public static Board create(int size, int mineCount) {
-		validateParameters(size, mineCount);
-		Board board = new Board(size, new Cell[size][size], GameState.PLAYING, new Random());
-		board.initializeGrid();
-		board.placeMines(mineCount);
-		board.calculateAdjacentMines();
-		return board;
+		return create(size, mineCount, new Random());
+	}
+
+	/**
+	 * Creates a new square board whose mine layout is fully determined by the given seed.
+	 */
+	public static Board create(int size, int mineCount, long seed) {
+		return new Builder(size, size)
+			.setMineCount(mineCount)
+			.setSeed(seed)
+			.build();
+	}
+
+	/**
+	 * Creates a new square board with mines drawn from the given random generator.
+	 */
+	public static Board create(int size, int mineCount, RandomGenerator random) {
+		return new Builder(size, size)
+			.setMineCount(mineCount)
+			.setRandom(random)
+			.build();
+	}
+
+	/**
+	 * Creates a new square board that can be solved without guessing once the first click is
+	 * revealed. The cells around the first click are free of mines, so it opens a region. The
+	 * layout is fully determined by the seed.
+	 * @throws IllegalArgumentException if the parameters are out of range
+	 * @throws IllegalStateException if no such layout is found within the generator's attempt limit
+	 * @see NoGuessGenerator
+	 */
+	public static Board createNoGuess(int size, int mineCount, Position firstClick, long seed) {
+		return NoGuessGenerator.getDefault().generate(size, size, mineCount, firstClick, seed);
 	}
 
-	private static void validateParameters(int size, int mineCount) {
-		if (size < 2 || size > MAX_SIZE) {
+	private static void validateParameters(int rows, int columns, int mineCount) {
+		if (rows < MIN_SIZE || columns < MIN_SIZE) {
 			throw new IllegalArgumentException(
-				"Board size must be between 2 and " + MAX_SIZE);
+				"Board must have at least " + MIN_SIZE + " rows and " + MIN_SIZE + " columns");
 		}
-		int maxMines = (int) (size * size * MAX_MINE_PERCENTAGE);
+		long cellCount = (long) rows * columns;
+		if (cellCount > MAX_CELLS) {
+			throw new IllegalArgumentException(
+				"Board cannot have more than " + MAX_CELLS + " cells");
+		}
+		int maxMines = (int) (cellCount * MAX_MINE_PERCENTAGE);
 		if (mineCount < 1 || mineCount > maxMines) {
 			throw new IllegalArgumentException(
 				"Mine count must be between 1 and " + maxMines);
 		}
 	}
 
-	private void initializeGrid() {
-		for (int row = 0; row < size; row++) {
-			for (int col = 0; col < size; col++) {
-				grid[row][col] = new Cell.Builder(row, col).build();
+	private static byte[] pack(int rows, int columns, Cell[][] grid) {
+		byte[] cells = new byte[rows * columns];
+		for (int row = 0; row < rows; row++) {
+			for (int col = 0; col < columns; col++) {
+				cells[row * columns + col] = (byte) grid[row][col].toBits();
+			}
+		}
+		return cells;
+	}
+
+	private static int countMines(byte[] cells) {
+		int count = 0;
+		for (byte cell : cells) {
+			if ((cell & Cell.MINE) != 0) {
+				count++;
 			}
 		}
+		return count;
 	}
 
-	private void placeMines(int mineCount) {
-		Set<Position> minePositions = new HashSet<>();
-		while (minePositions.size() < mineCount) {
-			Position pos = new Position(random.nextInt(size), random.nextInt(size));
-			if (minePositions.add(pos)) {
-				grid[pos.row()][pos.col()] = new Cell.Builder(pos.row(), pos.col())
-					.setMine(true)
-					.build();
+	private static int countHiddenSafeCells(byte[] cells) {
+		int count = 0;
+		for (byte cell : cells) {
+			if ((cell & (Cell.MINE | Cell.REVEALED)) == 0) {
+				count++;
 			}
 		}
+		return count;
+	}
+
+	/**
+	 * Places mines with Floyd's sampling algorithm over linear cell indices. Draw j picks a
+	 * cell uniformly from the first j + 1 indices and takes index j instead when the pick is
+	 * already a mine, which yields a uniformly random set of distinct cells in exactly
+	 * mineCount draws, whatever the density.
+	 */
+	static void placeMines(byte[] cells, int mineCount, RandomGenerator random) {
+		placeMines(cells, mineCount, random, new int[0]);
 	}
 
-	private void calculateAdjacentMines() {
-		for (int row = 0; row < size; row++) {
-			for (int col = 0; col < size; col++) {
-				Position pos = new Position(row, col);
-				int count = countAdjacentMines(pos);
-				grid[row][col] = new Cell.Builder(row, col)
-					.setMine(grid[row][col].isMine())
-					.setAdjacentMines(count)
-					.build();
+	/**
+	 * Places mines as above while leaving the given cells clear. Sampling runs over the
+	 * allowed cells only, numbered in order, so the layout stays uniform over them.
+	 * @param excluded Linear indices of the cells to keep clear, in ascending order
+	 */
+	static void placeMines(byte[] cells, int mineCount, RandomGenerator random, int[] excluded) {
+		BoardEvents.MinePlacement event = new BoardEvents.MinePlacement();
+		event.begin();
+		int allowed = cells.length - excluded.length;
+		for (int j = allowed - mineCount; j < allowed; j++) {
+			int pick = skipExcluded(random.nextInt(j + 1), excluded);
+			if ((cells[pick] & Cell.MINE) != 0) {
+				pick = skipExcluded(j, excluded);
 			}
+			cells[pick] |= Cell.MINE;
+		}
+		if (event.shouldCommit()) {
+			event.cells = cells.length;
+			event.mineCount = mineCount;
+			event.commit();
 		}
 	}
 
-	private int countAdjacentMines(Position pos) {
-		int count = 0;
-		Position[] positions = pos.getAdjacentPositions(size);
-		for (Position p : positions) {
-			if (grid[p.row()][p.col()].isMine()) {
-				count++;
+	// Maps the n-th allowed cell to its linear index
+	static int skipExcluded(int n, int[] excluded) {
+		for (int index : excluded) {
+			if (index > n) {
+				break;
 			}
+			n++;
+		}
+		return n;
+	}
+
+	static void calculateAdjacentMines(byte[] cells, int rows, int columns) {
+		BoardEvents.AdjacencyCount event = new BoardEvents.AdjacencyCount();
+		event.begin();
+		AdjacencyCounter.count(cells, rows, columns);
+		if (event.shouldCommit()) {
+			event.rows = rows;
+			event.columns = columns;
+			event.commit();
 		}
-		return count;
 	}
 
 	/**
-	 * Reveals a cell at the given position.
+	 * Reveals a cell at the given position. A flagged cell must be unflagged first.
 	 */
 	public Board reveal(Position position) {
-		if (!position.isValid(size) || gameState.isGameOver()) {
+		if (!position.isValid(rows, columns) || gameState.isGameOver()) {
 			return this;
 		}
 
-		Cell cell = grid[position.row()][position.col()];
-		if (cell.isRevealed()) {
+		int index = position.row() * columns + position.col();
+		if ((cells.get(index) & (Cell.REVEALED | Cell.FLAGGED)) != 0) {
 			return this;
 		}
 
-		Cell[][] newGrid = deepCopyGrid();
-		newGrid[position.row()][position.col()] = cell.reveal();
+		BoardEvents.Reveal event = new BoardEvents.Reveal();
+		event.begin();
+		CellStore.Editor editor = cells.edit();
+		IntQueue revealed = new IntQueue();
+		boolean safe = revealCell(index, editor, revealed);
+		Board next = afterReveal(editor, revealed, safe ? 0 : 1);
+		if (event.shouldCommit()) {
+			event.rows = rows;
+			event.columns = columns;
+			event.cellsRevealed = revealed.size();
+			event.commit();
+		}
+		return next;
+	}
 
-		if (cell.isMine()) {
-			return new Board(size, newGrid, GameState.LOST, random);
+	/**
+	 * Reveals the given cells in order as a single move, skipping cells that are off the board,
+	 * revealed or flagged. Stops at the first mine, which loses the game. Cheaper than revealing
+	 * one by one, since the grid is copied and the game state evaluated once.
+	 */
+	public Board revealAll(Collection<Position> positions) {
+		if (gameState.isGameOver()) {
+			return this;
 		}
+		CellStore.Editor editor = cells.edit();
+		IntQueue revealed = new IntQueue();
+		for (Position position : positions) {
+			if (!position.isValid(rows, columns)) {
+				continue;
+			}
+			int index = position.row() * columns + position.col();
+			if ((editor.get(index) & (Cell.REVEALED | Cell.FLAGGED)) == 0 && !revealCell(index, editor, revealed)) {
+				return afterReveal(editor, revealed, 1);
+			}
+		}
+		return revealed.isEmpty() ? this : afterReveal(editor, revealed, 0);
+	}
 
-		if (cell.getAdjacentMines() == 0) {
-			revealAdjacentCells(position, newGrid);
+	/**
+	 * Chords on a revealed number: if exactly that many of its neighbours are flagged, reveals
+	 * all its other hidden neighbours as a single move. A wrongly placed flag makes this reveal a
+	 * mine and lose the game. Does nothing if the flag count does not match.
+	 */
+	public Board chord(Position position) {
+		if (!position.isValid(rows, columns) || gameState.isGameOver()) {
+			return this;
+		}
+		int cell = cells.get(position.row() * columns + position.col());
+		if ((cell & Cell.REVEALED) == 0 || (cell & Cell.ADJACENT_MASK) == 0) {
+			return this;
+		}
+		int lastRow = Math.min(rows - 1, position.row() + 1);
+		int lastCol = Math.min(columns - 1, position.col() + 1);
+		int flags = 0;
+		for (int r = Math.max(0, position.row() - 1); r <= lastRow; r++) {
+			for (int c = Math.max(0, position.col() - 1); c <= lastCol; c++) {
+				flags += (cells.get(r * columns + c) & Cell.FLAGGED) != 0 ? 1 : 0;
+			}
+		}
+		if (flags != (cell & Cell.ADJACENT_MASK)) {
+			return this;
+		}
+		CellStore.Editor editor = cells.edit();
+		IntQueue revealed = new IntQueue();
+		// Several flags can be wrong, so the chord can uncover several mines
+		int mines = 0;
+		for (int r = Math.max(0, position.row() - 1); r <= lastRow; r++) {
+			for (int c = Math.max(0, position.col() - 1); c <= lastCol; c++) {
+				int index = r * columns + c;
+				if ((editor.get(index) & (Cell.REVEALED | Cell.FLAGGED)) == 0 && !revealCell(index, editor, revealed)) {
+					mines++;
+				}
+			}
 		}
+		return revealed.isEmpty() ? this : afterReveal(editor, revealed, mines);
+	}
+
+	/**
+	 * Flags a hidden cell as a suspected mine. Flags are only markers: they do not count
+	 * towards winning, but a flagged cell cannot be revealed until it is unflagged.
+	 */
+	public Board flag(Position position) {
+		return setFlag(position, true);
+	}
 
-		GameState newState = isWon(newGrid) ? GameState.WON : GameState.PLAYING;
-		return new Board(size, newGrid, newState, random);
+	/**
+	 * Removes the flag from a cell.
+	 */
+	public Board unflag(Position position) {
+		return setFlag(position, false);
 	}
 
-	private void revealAdjacentCells(Position position, Cell[][] grid) {
-		Queue<Position> queue = new LinkedList<>();
-		Set<Position> visited = new HashSet<>();
-		queue.add(position);
-		visited.add(position);
+	private Board setFlag(Position position, boolean flagged) {
+		if (!position.isValid(rows, columns) || gameState.isGameOver()) {
+			return this;
+		}
+		int index = position.row() * columns + position.col();
+		int cell = cells.get(index);
+		if ((cell & Cell.REVEALED) != 0 || ((cell & Cell.FLAGGED) != 0) == flagged) {
+			return this;
+		}
+		CellStore.Editor editor = cells.edit();
+		editor.set(index, (byte) (cell ^ Cell.FLAGGED));
+		return new Board(rows, columns, editor.build(), mineCount, gameState, random, seed, hiddenSafeCells,
+			new int[] {index}, regions);
+	}
+
+	/**
+	 * Reveals one hidden cell into the editor, cascading from a zero cell.
+	 * @param revealed Receives the index of every cell revealed
+	 * @return false if the cell is a mine
+	 */
+	private boolean revealCell(int index, CellStore.Editor editor, IntQueue revealed) {
+		int cell = editor.get(index);
+		editor.set(index, (byte) ((cell | Cell.REVEALED) & ~Cell.FLAGGED));
+		revealed.add(index);
+		if ((cell & Cell.MINE) != 0) {
+			return false;
+		}
+		if ((cell & Cell.ADJACENT_MASK) == 0) {
+			BoardEvents.Cascade event = new BoardEvents.Cascade();
+			event.begin();
+			int before = revealed.size();
+			ZeroRegions openings = regions.get();
+			boolean indexed = openings != null && revealRegion(openings, index, editor, revealed);
+			if (!indexed) {
+				revealAdjacentCells(index, editor, revealed);
+			}
+			if (event.shouldCommit()) {
+				event.rows = rows;
+				event.columns = columns;
+				event.cellsRevealed = revealed.size() - before;
+				event.indexed = indexed;
+				event.commit();
+			}
+		}
+		return true;
+	}
+
+	// Builds the board after a move that revealed the given cells, the given number of them mines
+	private Board afterReveal(CellStore.Editor editor, IntQueue revealed, int mines) {
+		if (mines > 0) {
+			return new Board(rows, columns, editor.build(), mineCount, GameState.LOST, random, seed,
+				hiddenSafeCells - (revealed.size() - mines), revealed.toArray(), regions);
+		}
+		int remaining = hiddenSafeCells - revealed.size();
+		GameState newState = remaining == 0 ? GameState.WON : GameState.PLAYING;
+		return new Board(rows, columns, editor.build(), mineCount, newState, random, seed, remaining,
+			revealed.toArray(), regions);
+	}
+
+	/**
+	 * Reveals the region connected to a zero cell. Works on linear indices with a primitive
+	 * queue; the revealed bit doubles as the visited set, since a cell is queued only at the
+	 * moment it is revealed. A cascade also opens flagged safe cells, dropping their flags.
+	 * @param revealed Receives the index of every cell revealed
+	 */
+	private void revealAdjacentCells(int start, CellStore.Editor cells, IntQueue revealed) {
+		IntQueue queue = new IntQueue();
+		queue.add(start);
 
 		while (!queue.isEmpty()) {
-			Position current = queue.poll();
-			for (Position adj : current.getAdjacentPositions(size)) {
-				if (visited.contains(adj)) continue;
-				Cell cell = grid[adj.row()][adj.col()];
-				if (!cell.isRevealed() && !cell.isMine()) {
-					grid[adj.row()][adj.col()] = cell.reveal();
-					visited.add(adj);
-					if (cell.getAdjacentMines() == 0) {
-						queue.add(adj);
+			int current = queue.poll();
+			int row = current / columns;
+			int col = current - row * columns;
+			int lastRow = Math.min(rows - 1, row + 1);
+			int lastCol = Math.min(columns - 1, col + 1);
+			for (int r = Math.max(0, row - 1); r <= lastRow; r++) {
+				for (int c = Math.max(0, col - 1); c <= lastCol; c++) {
+					int index = r * columns + c;
+					int cell = cells.get(index);
+					if ((cell & (Cell.REVEALED | Cell.MINE)) == 0) {
+						cells.set(index, (byte) ((cell | Cell.REVEALED) & ~Cell.FLAGGED));
+						revealed.add(index);
+						if ((cell & Cell.ADJACENT_MASK) == 0) {
+							queue.add(index);
+						}
 					}
 				}
 			}
 		}
 	}
 
-	public Cell[][] deepCopyGrid() {
-		Cell[][] newGrid = new Cell[size][size];
-		for (int i = 0; i < size; i++) {
-			System.arraycopy(grid[i], 0, newGrid[i], 0, size);
+	/**
+	 * Reveals the same cells as {@link #revealAdjacentCells} from the precomputed openings: the
+	 * zero cell's region with its numbered border. In play a revealed zero cell always has its
+	 * whole region revealed, so cells already revealed are simply skipped. A board loaded from
+	 * cells ({@link #fromPackedCells}, {@link BoardCodec}) may have a region partly revealed,
+	 * where the flood fill stops at the revealed zero cells; such a region is left to it.
+	 * <p>
+	 * Used once the index exists. It is not built for a cascade alone: each opening cascades at
+	 * most once per game, so building the index would cost more than the flood fills it saves.
+	 * Asking for {@link #getOpeningCount()} or {@link #get3BV()} builds it, and from then on
+	 * every version of the game, including branches explored by a solver, reveals in bulk.
+	 * @param revealed Receives the index of every cell revealed
+	 * @return false, revealing nothing, if another zero cell of the region is already revealed
+	 */
+	private static boolean revealRegion(ZeroRegions regions, int start, CellStore.Editor cells, IntQueue revealed) {
+		int region = regions.regionOf(start);
+		int first = regions.start(region);
+		int end = regions.end(region);
+		for (int k = first; k < end; k++) {
+			int index = regions.cell(k);
+			if (index != start && (cells.get(index) & (Cell.REVEALED | Cell.MINE | Cell.ADJACENT_MASK)) == Cell.REVEALED) {
+				return false;
+			}
 		}
-		return newGrid;
+		for (int k = first; k < end; k++) {
+			int index = regions.cell(k);
+			int cell = cells.get(index);
+			if ((cell & Cell.REVEALED) == 0) {
+				cells.set(index, (byte) ((cell | Cell.REVEALED) & ~Cell.FLAGGED));
+				revealed.add(index);
+			}
+		}
+		return true;
+	}
+
+	// Builds the index on first use; a build racing on another thread just loses the exchange
+	private ZeroRegions zeroRegions() {
+		ZeroRegions index = regions.get();
+		if (index == null) {
+			regions.compareAndSet(null, ZeroRegions.of(cells.toArray(), rows, columns));
+			index = regions.get();
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the number of openings: regions of connected zero cells, each uncovered by a
+	 * single click.
+	 */
+	public int getOpeningCount() {
+		return zeroRegions().openings();
+	}
+
+	/**
+	 * Returns the 3BV (Bechtel's Board Benchmark Value) of the mine layout: the minimum number
+	 * of clicks that clears the board without flags, one per opening plus one per numbered cell
+	 * that borders no opening. It rates the difficulty of a layout and does not change as the
+	 * game is played.
+	 */
+	public int get3BV() {
+		return zeroRegions().boardValue();
 	}
 
-	private boolean isWon(Cell[][] grid) {
-		for (Cell[] row : grid) {
-			for (Cell col : row) {
-				if (!col.isMine() && !col.isRevealed()) {
-					return false;
+	/**
+	 * Applies the move that produced this board to another version of the same game, usually
+	 * one published concurrently from the same parent. Reveals commute: a cascade uncovers the
+	 * same region whichever version it starts from, since a revealed zero cell always has its
+	 * whole region revealed. So the result equals replaying the move on the other board,
+	 * without repeating the cascade. Flag changes are applied to cells the other board has
+	 * not revealed.
+	 * @param other A board of the same game, with the same mine layout
+	 * @return the other board with this board's last move applied
+	 */
+	Board rebase(Board other) {
+		if (other.gameState.isGameOver() || changedCells.length == 0) {
+			return other;
+		}
+		CellStore.Editor editor = other.cells.edit();
+		IntQueue changed = new IntQueue(changedCells.length);
+		int newlyRevealed = 0;
+		boolean hitMine = false;
+		for (int index : changedCells) {
+			int target = cells.get(index);
+			int cell = editor.get(index);
+			if ((cell & Cell.REVEALED) != 0) {
+				continue;
+			}
+			if ((target & Cell.REVEALED) != 0) {
+				editor.set(index, (byte) ((cell | Cell.REVEALED) & ~Cell.FLAGGED));
+				changed.add(index);
+				if ((cell & Cell.MINE) != 0) {
+					hitMine = true;
+				} else {
+					newlyRevealed++;
 				}
+			} else if ((cell & Cell.FLAGGED) != (target & Cell.FLAGGED)) {
+				editor.set(index, (byte) (cell ^ Cell.FLAGGED));
+				changed.add(index);
 			}
 		}
-		return true;
+		if (changed.isEmpty()) {
+			return other;
+		}
+		int remaining = other.hiddenSafeCells - newlyRevealed;
+		GameState newState = hitMine ? GameState.LOST : remaining == 0 ? GameState.WON : other.gameState;
+		return new Board(rows, columns, editor.build(), mineCount, newState, random, seed, remaining,
+			changed.toArray(), other.regions);
+	}
+
+	/**
+	 * Returns the revealed cells as a bitset over linear indices, in {@link BitSet#toLongArray()} layout.
+	 */
+	long[] revealedBits() {
+		return cellBits(Cell.REVEALED);
+	}
+
+	/**
+	 * Returns the cells that have the given packed bit (such as {@link Cell#MINE}) set, as a
+	 * bitset over linear indices.
+	 */
+	long[] cellBits(int mask) {
+		return cellBits(cells.toArray(), mask);
+	}
+
+	/**
+	 * Returns the cells in the packed array that have the given bit set, as a bitset.
+	 */
+	static long[] cellBits(byte[] packed, int mask) {
+		long[] bits = new long[(packed.length + 63) >>> 6];
+		for (int i = 0; i < packed.length; i++) {
+			if ((packed[i] & mask) != 0) {
+				bits[i >>> 6] |= 1L << i;
+			}
+		}
+		return bits;
+	}
+
+	/**
+	 * Returns a copy of the packed cells in row-major order.
+	 */
+	byte[] packedCells() {
+		return cells.toArray();
+	}
+
+	/**
+	 * Wraps packed cells with mines, revealed bits and adjacent counts already in place, deriving
+	 * the game state from them. The array is adopted, not copied.
+	 */
+	static Board fromPackedCells(int rows, int columns, byte[] cells, OptionalLong seed) {
+		int mineCount = 0;
+		int hiddenSafeCells = 0;
+		boolean hitMine = false;
+		for (byte cell : cells) {
+			int bits = cell & (Cell.MINE | Cell.REVEALED);
+			mineCount += (bits & Cell.MINE) != 0 ? 1 : 0;
+			hiddenSafeCells += bits == 0 ? 1 : 0;
+			hitMine |= bits == (Cell.MINE | Cell.REVEALED);
+		}
+		GameState state = hitMine ? GameState.LOST : hiddenSafeCells == 0 ? GameState.WON : GameState.PLAYING;
+		// The mines are already placed, so there is nothing left to draw from a generator
+		return new Board(rows, columns, CellStore.of(cells), mineCount, state, null, seed, hiddenSafeCells, NO_CELLS,
+			new AtomicReference<>());
+	}
+
+	/**
+	 * Reveals exactly the cells in the given bitset, without cascading, and derives the game
+	 * state from them. Used to restore a saved game onto a board rebuilt from its seed.
+	 * @param revealed Bitset over linear indices, as returned by {@link #revealedBits()}
+	 */
+	Board withRevealed(long[] revealed) {
+		CellStore.Editor editor = cells.edit();
+		int newlyRevealed = 0;
+		boolean hitMine = false;
+		for (int word = 0; word < revealed.length; word++) {
+			for (long bits = revealed[word]; bits != 0; bits &= bits - 1) {
+				int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+				if (index >= cells.length()) {
+					throw new IllegalArgumentException("Revealed cell " + index + " is off the board");
+				}
+				int cell = editor.get(index);
+				if ((cell & Cell.REVEALED) == 0) {
+					editor.set(index, (byte) (cell | Cell.REVEALED));
+					if ((cell & Cell.MINE) != 0) {
+						hitMine = true;
+					} else {
+						newlyRevealed++;
+					}
+				}
+			}
+		}
+		int remaining = hiddenSafeCells - newlyRevealed;
+		GameState state = hitMine ? GameState.LOST : remaining == 0 ? GameState.WON : GameState.PLAYING;
+		return new Board(rows, columns, editor.build(), mineCount, state, random, seed, remaining, NO_CELLS, regions);
+	}
+
+	/**
+	 * Materializes the packed cells as a fresh grid of {@link Cell} objects.
+	 */
+	public Cell[][] deepCopyGrid() {
+		Cell[][] newGrid = new Cell[rows][columns];
+		for (int row = 0; row < rows; row++) {
+			for (int col = 0; col < columns; col++) {
+				newGrid[row][col] = Cell.fromBits(row, col, cells.get(row * columns + col));
+			}
+		}
+		return newGrid;
 	}
 
 	public GameState getGameState() {
 		return gameState;
 	}
 
+	/**
+	 * Returns the side length of a square board.
+	 * @throws IllegalStateException if the board is not square
+	 */
 	public int getSize() {
-		return size;
+		if (rows != columns) {
+			throw new IllegalStateException("Board is " + rows + "x" + columns + ", not square");
+		}
+		return rows;
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	public int getColumns() {
+		return columns;
+	}
+
+	public int getMineCount() {
+		return mineCount;
+	}
+
+	/**
+	 * Returns the seed the mine layout was drawn from, which is known only for boards built
+	 * with {@link Builder#setSeed(long)} or {@link #create(int, int, long)}.
+	 */
+	public OptionalLong getSeed() {
+		return seed;
 	}
 
 	public Cell getCell(Position position) {
-		return grid[position.row()][position.col()];
+		return Cell.fromBits(position, cells.get(position.row() * columns + position.col()));
+	}
+
+	/**
+	 * Returns the state of a cell as a shared {@link Cell} that has no position, without
+	 * allocating. Every cell in the same state returns the same instance.
+	 */
+	public Cell getCellState(Position position) {
+		return Cell.shared(cells.get(position.row() * columns + position.col()));
+	}
+
+	/**
+	 * Returns the number of safe cells still hidden.
+	 */
+	int hiddenSafeCells() {
+		return hiddenSafeCells;
+	}
+
+	/**
+	 * Returns the linear indices of the cells changed by the move that produced this board.
+	 */
+	int[] changedCells() {
+		return changedCells;
+	}
+
+	/**
+	 * Returns the linear indices of the cells that differ from another version of this game,
+	 * such as one some moves earlier, in row-major order. Cheap when the two share most of
+	 * their cells, as versions of one game do.
+	 * @throws IllegalArgumentException if the other board has a different shape
+	 */
+	int[] changedSince(Board earlier) {
+		if (earlier.rows != rows || earlier.columns != columns) {
+			throw new IllegalArgumentException("Boards of different shapes");
+		}
+		IntQueue changed = new IntQueue();
+		cells.addDifferences(earlier.cells, changed);
+		return changed.toArray();
+	}
+
+	/**
+	 * Returns the cells changed by the move that produced this board, as linear indices
+	 * ({@code row * columns + col}): every cell a reveal, cascade, chord or flag changed. Empty
+	 * for a board that was not produced by a move.
+	 */
+	public int[] getChangedCells() {
+		return changedCells.clone();
+	}
+
+	/**
+	 * Returns the packed bits of the cell at a linear index.
+	 */
+	int packedCell(int index) {
+		return cells.get(index);
 	}
 
 	@Override
 	public String toString() {
-		StringBuilder sb = new StringBuilder();
-        
-		// Column headers
-		sb.append("  ");
-		for (int i = 1; i <= size; i++) {
-			sb.append(i).append(" ");
+		return new BoardRenderer(rows, columns).toString(this);
+	}
+
+	/**
+	 * Builder for validated boards of any shape. Memory and creation time are linear in
+	 * the number of cells.
+	 */
+	public static class Builder {
+		private final int rows;
+		private final int columns;
+		private int mineCount;
+		private RandomGenerator random;
+		private OptionalLong seed = OptionalLong.empty();
+		private Position safeArea;
+
+		public Builder(int rows, int columns) {
+			this.rows = rows;
+			this.columns = columns;
 		}
-		sb.append("\n");
 
-		// Rows
-		for (int row = 0; row < size; row++) {
-			sb.append((char) ('A' + row)).append(" ");
-			for (int col = 0; col < size; col++) {
-				sb.append(grid[row][col]).append(" ");
+		public Builder setMineCount(int mineCount) {
+			this.mineCount = mineCount;
+			return this;
+		}
+
+		public Builder setSeed(long seed) {
+			this.random = new SplittableRandom(seed);
+			this.seed = OptionalLong.of(seed);
+			return this;
+		}
+
+		public Builder setRandom(RandomGenerator random) {
+			this.random = random;
+			this.seed = OptionalLong.empty();
+			return this;
+		}
+
+		/**
+		 * Keeps the given cell and its neighbours free of mines, typically around the first click.
+		 */
+		public Builder setSafeArea(Position center) {
+			this.safeArea = center;
+			return this;
+		}
+
+		/**
+		 * Builds the board. Boards of 2^20 cells or more are generated in parallel bands, which
+		 * gives a different layout for a seed than the serial placement used for smaller boards,
+		 * but still the same one on every run.
+		 * @throws IllegalArgumentException if the dimensions or mine count are out of range, or
+		 *         the safe area is off the board or leaves too few cells for the mines
+		 */
+		public Board build() {
+			BoardEvents.Create event = new BoardEvents.Create();
+			event.begin();
+			validateParameters(rows, columns, mineCount);
+			int[] excluded = safeAreaIndices();
+			if (mineCount > rows * columns - excluded.length) {
+				throw new IllegalArgumentException("Mine count leaves no room for the safe area");
+			}
+			RandomGenerator generator = random != null ? random : new Random();
+			byte[] cells;
+			boolean parallel = rows * columns >= TiledGenerator.PARALLEL_THRESHOLD;
+			if (parallel) {
+				long tileSeed = seed.isPresent() ? seed.getAsLong() : generator.nextLong();
+				cells = TiledGenerator.generate(rows, columns, mineCount, tileSeed, excluded);
+			} else {
+				cells = new byte[rows * columns];
+				placeMines(cells, mineCount, generator, excluded);
+				calculateAdjacentMines(cells, rows, columns);
+			}
+			Board board = new Board(rows, columns, CellStore.of(cells), mineCount, GameState.PLAYING, generator,
+				seed, cells.length - mineCount, NO_CELLS, new AtomicReference<>());
+			if (event.shouldCommit()) {
+				event.rows = rows;
+				event.columns = columns;
+				event.mineCount = mineCount;
+				event.parallel = parallel;
+				event.commit();
+			}
+			return board;
+		}
+
+		private int[] safeAreaIndices() {
+			if (safeArea == null) {
+				return new int[0];
+			}
+			if (!safeArea.isValid(rows, columns)) {
+				throw new IllegalArgumentException("Safe area " + safeArea + " is off the board");
+			}
+			int firstRow = Math.max(0, safeArea.row() - 1);
+			int lastRow = Math.min(rows - 1, safeArea.row() + 1);
+			int firstCol = Math.max(0, safeArea.col() - 1);
+			int lastCol = Math.min(columns - 1, safeArea.col() + 1);
+			int[] indices = new int[(lastRow - firstRow + 1) * (lastCol - firstCol + 1)];
+			int i = 0;
+			for (int r = firstRow; r <= lastRow; r++) {
+				for (int c = firstCol; c <= lastCol; c++) {
+					indices[i++] = r * columns + c;
+				}
 			}
-			sb.append("\n");
+			return indices;
 		}
-		return sb.toString();
 	}
 }
@@ -0,0 +1,288 @@
+package com.minesweeper;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Versioned binary format for boards, for archiving games and shipping test boards.
+ * <p>
+ * A board is a header followed by bit planes over linear cell indices; the flag plane is
+ * written only when a cell is flagged:
+ * <pre>
+ *   int   magic "MSWB"
+ *   byte  version (1)
+ *   byte  flags: 1 = seed present, 2 = flag plane present
+ *   int   rows, int columns
+ *   long  seed (0 when absent)
+ *   plane mines, plane revealed[, plane flags]
+ * </pre>
+ * Each plane is an encoding byte (0 raw, 1 run-length), the data length in bytes as an int and
+ * the data. Raw data is the bitset as big-endian longs. Run-length data is alternating runs of
+ * clear and set bits, starting with clear, as unsigned varints; it is used only when it is
+ * smaller than raw. The runs cover every cell and only the leading clear run may be empty.
+ * Adjacent mine counts and the game state are not stored; loading derives them from the
+ * planes.
+ * <p>
+ * Boards can be concatenated: {@link #decode(ByteBuffer)} reads one board and leaves the
+ * buffer after it. Loading a file maps it and decodes the planes straight into the packed
+ * cells, without creating a {@link Cell} per square.
+ */
+public final class BoardCodec {
+    static final int MAGIC = 0x4D535742; // "MSWB"
+    static final byte VERSION = 1;
+    private static final byte HAS_SEED = 1;
+    private static final byte HAS_FLAGS = 2;
+    private static final byte RAW = 0;
+    private static final byte RUN_LENGTH = 1;
+
+    private BoardCodec() {
+    }
+
+    /**
+     * Encodes a board into a new buffer, ready to be read or written.
+     * @param compress Whether to run-length encode planes where that is smaller
+     */
+    public static ByteBuffer encode(Board board, boolean compress) {
+        int cellCount = board.getRows() * board.getColumns();
+        List<byte[]> planes = new ArrayList<>();
+        byte[] cells = board.packedCells();
+        planes.add(encodePlane(Board.cellBits(cells, Cell.MINE), cellCount, compress));
+        planes.add(encodePlane(Board.cellBits(cells, Cell.REVEALED), cellCount, compress));
+        long[] flagged = Board.cellBits(cells, Cell.FLAGGED);
+        boolean hasFlags = Arrays.stream(flagged).anyMatch(word -> word != 0);
+        if (hasFlags) {
+            planes.add(encodePlane(flagged, cellCount, compress));
+        }
+        int size = 4 + 1 + 1 + 4 + 4 + 8;
+        for (byte[] plane : planes) {
+            size += plane.length;
+        }
+        OptionalLong seed = board.getSeed();
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        byte flags = (byte) ((seed.isPresent() ? HAS_SEED : 0) | (hasFlags ? HAS_FLAGS : 0));
+        buffer.putInt(MAGIC).put(VERSION).put(flags)
+            .putInt(board.getRows()).putInt(board.getColumns()).putLong(seed.orElse(0));
+        for (byte[] plane : planes) {
+            buffer.put(plane);
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Decodes the board at the buffer's position and moves the position past it.
+     * @throws IOException if the data is not a board in a supported version, or is truncated or
+     *     corrupt
+     */
+    public static Board decode(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not an encoded board");
+            }
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IOException("Unsupported board format version " + version);
+            }
+            byte flags = buffer.get();
+            int rows = buffer.getInt();
+            int columns = buffer.getInt();
+            long seed = buffer.getLong();
+            long cellCount = (long) rows * columns;
+            if (rows < Board.MIN_SIZE || columns < Board.MIN_SIZE || cellCount > Board.MAX_CELLS) {
+                throw new IOException("Invalid dimensions " + rows + "x" + columns);
+            }
+            byte[] cells = new byte[(int) cellCount];
+            decodePlane(buffer, cells, Cell.MINE);
+            decodePlane(buffer, cells, Cell.REVEALED);
+            if ((flags & HAS_FLAGS) != 0) {
+                decodePlane(buffer, cells, Cell.FLAGGED);
+            }
+            Board.calculateAdjacentMines(cells, rows, columns);
+            return Board.fromPackedCells(rows, columns, cells,
+                (flags & HAS_SEED) != 0 ? OptionalLong.of(seed) : OptionalLong.empty());
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated board data");
+        }
+    }
+
+    /**
+     * Writes a board to the channel at its current position.
+     */
+    public static void write(Board board, FileChannel channel, boolean compress) throws IOException {
+        ByteBuffer buffer = encode(board, compress);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Saves a board to a file, replacing its contents.
+     */
+    public static void save(Board board, Path file, boolean compress) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(board, channel, compress);
+        }
+    }
+
+    /**
+     * Loads the first board in a file.
+     * @throws IOException also if the file does not start with a valid board
+     */
+    public static Board load(Path file) throws IOException {
+        return decode(map(file));
+    }
+
+    /**
+     * Loads every board in a file of concatenated boards.
+     * @throws IOException also if the file holds anything but valid boards
+     */
+    public static List<Board> loadAll(Path file) throws IOException {
+        ByteBuffer buffer = map(file);
+        List<Board> boards = new ArrayList<>();
+        while (buffer.hasRemaining()) {
+            boards.add(decode(buffer));
+        }
+        return boards;
+    }
+
+    private static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static byte[] encodePlane(long[] bits, int cellCount, boolean compress) {
+        if (compress) {
+            byte[] runs = encodeRuns(bits, cellCount);
+            if (runs.length < bits.length * 8) {
+                return withPlaneHeader(RUN_LENGTH, runs);
+            }
+        }
+        ByteBuffer raw = ByteBuffer.allocate(bits.length * 8);
+        raw.asLongBuffer().put(bits);
+        return withPlaneHeader(RAW, raw.array());
+    }
+
+    private static byte[] withPlaneHeader(byte encoding, byte[] data) {
+        return ByteBuffer.allocate(1 + 4 + data.length).put(encoding).putInt(data.length).put(data).array();
+    }
+
+    private static byte[] encodeRuns(long[] bits, int cellCount) {
+        byte[] out = new byte[64];
+        int length = 0;
+        int position = 0;
+        boolean set = false;
+        while (position < cellCount) {
+            int end = set ? nextClear(bits, position, cellCount) : nextSet(bits, position, cellCount);
+            if (out.length - length < 5) {
+                out = Arrays.copyOf(out, out.length * 2);
+            }
+            // Unsigned varint, 7 bits per byte, low bits first
+            for (int run = end - position; ; run >>>= 7) {
+                if ((run & ~0x7F) == 0) {
+                    out[length++] = (byte) run;
+                    break;
+                }
+                out[length++] = (byte) ((run & 0x7F) | 0x80);
+            }
+            position = end;
+            set = !set;
+        }
+        return Arrays.copyOf(out, length);
+    }
+
+    private static int nextSet(long[] bits, int from, int limit) {
+        int word = from >>> 6;
+        long current = bits[word] & (-1L << from);
+        while (current == 0) {
+            if (++word == bits.length) {
+                return limit;
+            }
+            current = bits[word];
+        }
+        return Math.min(limit, (word << 6) + Long.numberOfTrailingZeros(current));
+    }
+
+    private static int nextClear(long[] bits, int from, int limit) {
+        int word = from >>> 6;
+        long current = ~bits[word] & (-1L << from);
+        while (current == 0) {
+            if (++word == bits.length) {
+                return limit;
+            }
+            current = ~bits[word];
+        }
+        return Math.min(limit, (word << 6) + Long.numberOfTrailingZeros(current));
+    }
+
+    // ORs the plane's set bits into the cells as the given packed bit
+    private static void decodePlane(ByteBuffer buffer, byte[] cells, int mask) throws IOException {
+        byte encoding = buffer.get();
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("Truncated board data");
+        }
+        int end = buffer.position() + length;
+        if (encoding == RAW) {
+            if (length != ((cells.length + 63) >>> 6) * 8) {
+                throw new IOException("Plane size does not match the board");
+            }
+            for (int base = 0; base < cells.length; base += 64) {
+                for (long word = buffer.getLong(); word != 0; word &= word - 1) {
+                    int index = base + Long.numberOfTrailingZeros(word);
+                    if (index >= cells.length) {
+                        throw new IOException("Plane has bits past the last cell");
+                    }
+                    cells[index] |= (byte) mask;
+                }
+            }
+        } else if (encoding == RUN_LENGTH) {
+            int position = 0;
+            boolean set = false;
+            while (buffer.position() < end) {
+                int run = 0;
+                for (int shift = 0; ; shift += 7) {
+                    if (shift > 28) {
+                        throw new IOException("Run length overflows");
+                    }
+                    if (buffer.position() == end) {
+                        throw new IOException("Truncated run length");
+                    }
+                    byte b = buffer.get();
+                    run |= (b & 0x7F) << shift;
+                    if (b >= 0) {
+                        break;
+                    }
+                }
+                if (run < 0 || run > cells.length - position) {
+                    throw new IOException("Run past the last cell");
+                }
+                if (run == 0 && (set || position > 0)) {
+                    throw new IOException("Empty run at cell " + position);
+                }
+                if (set) {
+                    for (int i = position; i < position + run; i++) {
+                        cells[i] |= (byte) mask;
+                    }
+                }
+                position += run;
+                set = !set;
+            }
+            if (position != cells.length) {
+                throw new IOException("Plane ends at cell " + position + " of " + cells.length);
+            }
+        } else {
+            throw new IOException("Unknown plane encoding " + encoding);
+        }
+        buffer.position(end);
+    }
+}
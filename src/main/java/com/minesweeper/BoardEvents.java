@@ -0,0 +1,98 @@
+package com.minesweeper;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder events for board generation and reveals. Each event times one operation
+ * and records the size of the board and of the work done. Like all application events they are
+ * on in every recording unless its settings turn them off by name, such as
+ * {@code com.minesweeper.Reveal}. Reveals fire on every move, so a long recording under load may
+ * want a threshold on them.
+ * <p>
+ * Callers create an event, call {@code begin()}, and fill in its fields and commit only when
+ * {@code shouldCommit()} holds. Until a recording enables an event its methods do nothing, and
+ * the JIT removes the allocation, so the instrumented paths cost next to nothing without one.
+ */
+final class BoardEvents {
+    private BoardEvents() {
+    }
+
+    @Name("com.minesweeper.BoardCreate")
+    @Label("Board Create")
+    @Category({"Minesweeper", "Generation"})
+    @Description("Builds a board: places its mines and counts their neighbours")
+    static final class Create extends Event {
+        @Label("Rows")
+        int rows;
+
+        @Label("Columns")
+        int columns;
+
+        @Label("Mines")
+        int mineCount;
+
+        @Label("Parallel")
+        @Description("Whether the board was generated in parallel bands")
+        boolean parallel;
+    }
+
+    @Name("com.minesweeper.MinePlacement")
+    @Label("Mine Placement")
+    @Category({"Minesweeper", "Generation"})
+    static final class MinePlacement extends Event {
+        @Label("Cells")
+        int cells;
+
+        @Label("Mines")
+        int mineCount;
+    }
+
+    @Name("com.minesweeper.AdjacencyCount")
+    @Label("Adjacency Count")
+    @Category({"Minesweeper", "Generation"})
+    @Description("Computes the adjacent mine count of every cell")
+    static final class AdjacencyCount extends Event {
+        @Label("Rows")
+        int rows;
+
+        @Label("Columns")
+        int columns;
+    }
+
+    @Name("com.minesweeper.Reveal")
+    @Label("Reveal")
+    @Category({"Minesweeper", "Play"})
+    static final class Reveal extends Event {
+        @Label("Rows")
+        int rows;
+
+        @Label("Columns")
+        int columns;
+
+        @Label("Cells Revealed")
+        int cellsRevealed;
+    }
+
+    @Name("com.minesweeper.Cascade")
+    @Label("Cascade")
+    @Category({"Minesweeper", "Play"})
+    @Description("Reveals the opening around a zero cell")
+    static final class Cascade extends Event {
+        @Label("Rows")
+        int rows;
+
+        @Label("Columns")
+        int columns;
+
+        @Label("Cells Revealed")
+        int cellsRevealed;
+
+        @Label("Indexed")
+        @Description("Whether the opening came from the precomputed region index rather than a flood fill")
+        boolean indexed;
+    }
+}
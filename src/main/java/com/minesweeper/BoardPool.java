@@ -0,0 +1,250 @@
+package com.minesweeper;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps ready-made boards for each (rows, columns, mines) configuration so starting a game does
+ * not wait for mine placement.
+ * <p>
+ * Each configuration has a bounded queue. Taking a board that leaves the queue at or below the
+ * refill threshold starts a background refill on a virtual thread; at most one refill runs per
+ * configuration. An empty queue is a miss and the board is generated on the caller's thread.
+ * Configurations nobody has taken from for longer than the idle timeout are dropped with their
+ * boards. Boards are immutable, so handing one out needs no copy. Every board is drawn from
+ * its own random seed (see {@link Board#getSeed()}), so a game can be rebuilt from its seed.
+ * <p>
+ * Thread-safe.
+ */
+public class BoardPool implements AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 8;
+    private static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(5);
+
+    private final int capacity;
+    private final int refillThreshold;
+    private final long idleTimeoutNanos;
+    private final Map<Config, Entry> entries = new ConcurrentHashMap<>();
+    private final ExecutorService refillers = Executors.newVirtualThreadPerTaskExecutor();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile long nextSweep;
+
+    public BoardPool() {
+        this(new Builder());
+    }
+
+    private BoardPool(Builder builder) {
+        this.capacity = builder.capacity;
+        this.refillThreshold = builder.refillThreshold;
+        this.idleTimeoutNanos = builder.idleTimeout.toNanos();
+        this.nextSweep = System.nanoTime() + idleTimeoutNanos;
+    }
+
+    /**
+     * Takes a board for the given configuration, generating one on this thread if none is ready.
+     * @throws IllegalArgumentException if the configuration is not a valid board
+     */
+    public Board take(int rows, int columns, int mineCount) {
+        Config config = new Config(rows, columns, mineCount);
+        Entry entry = entries.get(config);
+        Board board = entry == null ? null : entry.boards.poll();
+        if (board != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            // Generating first rejects an invalid configuration before it is registered
+            board = generate(config);
+            entry = entries.computeIfAbsent(config, Entry::new);
+        }
+        long now = System.nanoTime();
+        entry.lastUsed = now;
+        if (entry.boards.size() <= refillThreshold) {
+            refill(entry);
+        }
+        if (now - nextSweep > 0) {
+            evictIdle(now);
+        }
+        return board;
+    }
+
+    /**
+     * Registers a configuration and fills its queue in the background, ahead of the first take.
+     * @throws IllegalArgumentException if the configuration is not a valid board
+     */
+    public void warmUp(int rows, int columns, int mineCount) {
+        Config config = new Config(rows, columns, mineCount);
+        Entry entry = entries.get(config);
+        if (entry == null) {
+            Board first = generate(config);
+            entry = entries.computeIfAbsent(config, Entry::new);
+            entry.boards.offer(first);
+        }
+        entry.lastUsed = System.nanoTime();
+        refill(entry);
+    }
+
+    /**
+     * Returns the number of boards ready for the given configuration.
+     */
+    public int available(int rows, int columns, int mineCount) {
+        Entry entry = entries.get(new Config(rows, columns, mineCount));
+        return entry == null ? 0 : entry.boards.size();
+    }
+
+    /**
+     * Drops every configuration that has been idle for longer than the idle timeout. Runs
+     * automatically from {@link #take} once per timeout period.
+     */
+    public void evictIdle() {
+        evictIdle(System.nanoTime());
+    }
+
+    private void evictIdle(long now) {
+        nextSweep = now + idleTimeoutNanos;
+        for (Entry entry : entries.values()) {
+            if (now - entry.lastUsed > idleTimeoutNanos && entries.remove(entry.config, entry)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private void refill(Entry entry) {
+        if (!entry.refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refillers.execute(() -> {
+                try {
+                    // Stops once full, or once the configuration has been evicted
+                    while (entry.boards.remainingCapacity() > 0 && entries.get(entry.config) == entry) {
+                        entry.boards.offer(generate(entry.config));
+                    }
+                } finally {
+                    entry.refilling.set(false);
+                }
+                // A take that drained the queue after the loop ended saw the flag still set
+                if (entry.boards.size() <= refillThreshold && entries.get(entry.config) == entry) {
+                    refill(entry);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Pool closed; callers fall back to generating on their own thread
+            entry.refilling.set(false);
+        }
+    }
+
+    private Board generate(Config config) {
+        Board board = new Board.Builder(config.rows(), config.columns())
+            .setMineCount(config.mineCount())
+            .setSeed(ThreadLocalRandom.current().nextLong())
+            .build();
+        generated.increment();
+        return board;
+    }
+
+    public Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), generated.sum(), evictions.sum(), entries.size());
+    }
+
+    /**
+     * Stops the background refills and drops all ready boards. Boards can still be taken
+     * afterwards but are always generated on the caller's thread.
+     */
+    @Override
+    public void close() {
+        refillers.shutdownNow();
+        entries.clear();
+    }
+
+    /**
+     * Pool statistics. Generated counts boards built on both background and caller threads.
+     */
+    public record Stats(long hits, long misses, long generated, long evictions, int configurations) {
+        public double hitRate() {
+            long takes = hits + misses;
+            return takes == 0 ? 0 : (double) hits / takes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d misses=%d hitRate=%.4f generated=%d evictions=%d configurations=%d",
+                hits, misses, hitRate(), generated, evictions, configurations);
+        }
+    }
+
+    private record Config(int rows, int columns, int mineCount) {
+    }
+
+    private final class Entry {
+        private final Config config;
+        private final BlockingQueue<Board> boards = new ArrayBlockingQueue<>(capacity);
+        private final AtomicBoolean refilling = new AtomicBoolean();
+        private volatile long lastUsed = System.nanoTime();
+
+        private Entry(Config config) {
+            this.config = config;
+        }
+    }
+
+    /**
+     * Builder for pools with non-default sizing.
+     */
+    public static class Builder {
+        private int capacity = DEFAULT_CAPACITY;
+        private int refillThreshold = DEFAULT_CAPACITY / 2;
+        private Duration idleTimeout = DEFAULT_IDLE_TIMEOUT;
+
+        /**
+         * Sets the number of ready boards kept per configuration.
+         */
+        public Builder setCapacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * Sets the queue length at or below which a take starts a refill.
+         */
+        public Builder setRefillThreshold(int refillThreshold) {
+            this.refillThreshold = refillThreshold;
+            return this;
+        }
+
+        /**
+         * Sets how long a configuration may go without takes before it is dropped.
+         */
+        public Builder setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        /**
+         * Builds the pool.
+         * @throws IllegalArgumentException if the capacity is not positive, the threshold is
+         *         outside [0, capacity) or the timeout is negative
+         */
+        public BoardPool build() {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("Capacity must be positive");
+            }
+            if (refillThreshold < 0 || refillThreshold >= capacity) {
+                throw new IllegalArgumentException("Refill threshold must be between 0 and " + (capacity - 1));
+            }
+            if (idleTimeout.isNegative()) {
+                throw new IllegalArgumentException("Idle timeout must not be negative");
+            }
+            return new BoardPool(this);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.minesweeper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Writes boards as text straight to an {@link Appendable} or a {@link ByteBuffer}, in the
+ * format of {@link Board#toString()}.
+ * <p>
+ * A renderer is made for one board shape. It precomputes the column header and a line buffer
+ * with the separators in place, and looks display characters up in a table indexed by the
+ * packed cell bits. Each row is written into the buffer, its label advanced in place from the
+ * previous row's, and handed to the output in one call, so rendering allocates nothing per
+ * cell or row.
+ * <p>
+ * The delta methods write only the cells changed by the move that produced a board, so their
+ * cost follows the size of the move rather than the board. They assume the reader already
+ * has the board the move was made on. A move that changes nothing returns the board it was
+ * made on, so its delta repeats the move before; the records hold absolute cell states, so
+ * applying them twice is harmless. When other moves may have happened in between, as in a
+ * shared game, {@link #renderChanges(Board, Board, Appendable)} writes the difference from the
+ * board the reader last saw instead.
+ * <p>
+ * Not thread-safe, since the line buffer is reused; use one renderer per thread.
+ */
+public final class BoardRenderer {
+    private static final char[] DISPLAY = new char[0x80];
+    private static final String ESCAPE = "\u001b[";
+
+    static {
+        for (int bits = 0; bits < DISPLAY.length; bits++) {
+            DISPLAY[bits] = Cell.displayChar(bits);
+        }
+    }
+
+    private final int rows;
+    private final int columns;
+    private final int labelWidth;
+    private final String header;
+    private final char[] line;
+    private final char[] label;
+
+    public BoardRenderer(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.labelWidth = Position.rowLabel(rows - 1).length();
+        StringBuilder sb = new StringBuilder(" ".repeat(labelWidth + 1));
+        for (int i = 1; i <= columns; i++) {
+            sb.append(i).append(' ');
+        }
+        this.header = sb.append('\n').toString();
+        this.line = new char[labelWidth + 1 + 2 * columns + 1];
+        Arrays.fill(line, ' ');
+        line[line.length - 1] = '\n';
+        this.label = new char[labelWidth];
+    }
+
+    /**
+     * Returns a renderer for the board's shape.
+     */
+    public static BoardRenderer of(Board board) {
+        return new BoardRenderer(board.getRows(), board.getColumns());
+    }
+
+    /**
+     * Returns the length in characters (and bytes) of a full rendering.
+     */
+    public long renderedLength() {
+        return header.length() + (long) rows * line.length;
+    }
+
+    /**
+     * Writes the whole board.
+     * @throws IllegalArgumentException if the board has a different shape
+     */
+    public void render(Board board, Appendable out) throws IOException {
+        checkShape(board);
+        out.append(header);
+        int labelLength = resetLabel();
+        for (int row = 0; row < rows; row++) {
+            fillLine(board, row, labelLength);
+            write(out, line, line.length);
+            labelLength = nextLabel(labelLength);
+        }
+    }
+
+    /**
+     * Writes the whole board as ASCII bytes at the buffer's position.
+     * @throws java.nio.BufferOverflowException if fewer than {@link #renderedLength()} bytes remain
+     * @throws IllegalArgumentException if the board has a different shape
+     */
+    public void render(Board board, ByteBuffer out) {
+        checkShape(board);
+        for (int i = 0; i < header.length(); i++) {
+            out.put((byte) header.charAt(i));
+        }
+        int labelLength = resetLabel();
+        for (int row = 0; row < rows; row++) {
+            fillLine(board, row, labelLength);
+            for (char c : line) {
+                out.put((byte) c);
+            }
+            labelLength = nextLabel(labelLength);
+        }
+    }
+
+    /**
+     * Returns the whole board as a string; what {@link Board#toString()} returns.
+     */
+    public String toString(Board board) {
+        StringBuilder sb = new StringBuilder((int) Math.min(Integer.MAX_VALUE - 8, renderedLength()));
+        try {
+            render(board, sb);
+        } catch (IOException e) {
+            // StringBuilder does not throw
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes the cells changed by the board's last move as one line of space-separated
+     * {@code <position>=<char>} records, such as {@code A1=0 A2=1 B1=F}. Writes nothing if the
+     * move changed no cell.
+     * @throws IllegalArgumentException if the board has a different shape
+     */
+    public void renderChanges(Board board, Appendable out) throws IOException {
+        checkShape(board);
+        writeChanges(board, board.changedCells(), out);
+    }
+
+    /**
+     * Writes the cells that differ between an earlier version of a game and a later one, in
+     * the format of {@link #renderChanges(Board, Appendable)} and in row-major order. Covers
+     * every move in between, whoever made it; writes nothing if no cell differs.
+     * @throws IllegalArgumentException if either board has a different shape
+     */
+    public void renderChanges(Board earlier, Board board, Appendable out) throws IOException {
+        checkShape(earlier);
+        checkShape(board);
+        writeChanges(board, board.changedSince(earlier), out);
+    }
+
+    private void writeChanges(Board board, int[] changed, Appendable out) throws IOException {
+        if (changed.length == 0) {
+            return;
+        }
+        for (int i = 0; i < changed.length; i++) {
+            int row = changed[i] / columns;
+            int col = changed[i] - row * columns;
+            if (i > 0) {
+                out.append(' ');
+            }
+            out.append(Position.rowLabel(row)).append(Integer.toString(col + 1)).append('=')
+                .append(DISPLAY[board.packedCell(changed[i]) & 0x7F]);
+        }
+        out.append('\n');
+    }
+
+    /**
+     * Writes the cells changed by the board's last move as ANSI cursor moves over a full
+     * rendering at the top-left of the terminal, then leaves the cursor on the line below it.
+     * @throws IllegalArgumentException if the board has a different shape
+     */
+    public void renderAnsi(Board board, Appendable out) throws IOException {
+        checkShape(board);
+        for (int index : board.changedCells()) {
+            int row = index / columns;
+            int col = index - row * columns;
+            // Lines and columns are 1-based; the header takes the first line
+            out.append(ESCAPE).append(Integer.toString(row + 2)).append(';')
+                .append(Integer.toString(labelWidth + 2 + 2 * col)).append('H')
+                .append(DISPLAY[board.packedCell(index) & 0x7F]);
+        }
+        out.append(ESCAPE).append(Integer.toString(rows + 2)).append(";1H");
+    }
+
+    /**
+     * Returns whether the board has the shape this renderer is for.
+     */
+    public boolean fits(Board board) {
+        return board.getRows() == rows && board.getColumns() == columns;
+    }
+
+    private void checkShape(Board board) {
+        if (!fits(board)) {
+            throw new IllegalArgumentException("Renderer is for " + rows + "x" + columns + " boards, not "
+                + board.getRows() + "x" + board.getColumns());
+        }
+    }
+
+    private void fillLine(Board board, int row, int labelLength) {
+        // The label is right-padded to the widest label
+        for (int i = 0; i < labelWidth; i++) {
+            line[i] = i < labelLength ? label[labelWidth - labelLength + i] : ' ';
+        }
+        int base = row * columns;
+        for (int col = 0, at = labelWidth + 1; col < columns; col++, at += 2) {
+            line[at] = DISPLAY[board.packedCell(base + col) & 0x7F];
+        }
+    }
+
+    // Sets the label to "A"; the label is kept right-aligned in its array
+    private int resetLabel() {
+        label[labelWidth - 1] = 'A';
+        return 1;
+    }
+
+    // Advances the label to the next row's, as Position.rowLabel numbers them (Z, AA, AB, ...)
+    private int nextLabel(int length) {
+        for (int i = labelWidth - 1; i >= labelWidth - length; i--) {
+            if (label[i] != 'Z') {
+                label[i]++;
+                return length;
+            }
+            label[i] = 'A';
+        }
+        if (length < labelWidth) {
+            label[labelWidth - length - 1] = 'A';
+        }
+        return length + 1;
+    }
+
+    private static void write(Appendable out, char[] chars, int length) throws IOException {
+        if (out instanceof StringBuilder sb) {
+            sb.append(chars, 0, length);
+        } else if (out instanceof Writer writer) {
+            writer.write(chars, 0, length);
+        } else {
+            out.append(CharBuffer.wrap(chars, 0, length));
+        }
+    }
+}
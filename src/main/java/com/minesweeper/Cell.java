@@ -3,36 +3,108 @@ package com.minesweeper;
 /**
  * Represents an immutable cell in the Minesweeper game.
  * Uses the Builder pattern for construction and maintains immutable state.
+ * <p>
+ * A board's cells can take only a handful of states, so {@link Board#getCellState(Position)}
+ * hands out shared instances, one per packed state, that carry no position: the caller already
+ * knows where the cell is. Revealing a shared cell returns another shared cell.
  */
 public class Cell {
+    // Packed layout used by Board: bits 0-3 hold the adjacent mine count.
+    static final int ADJACENT_MASK = 0x0F;
+    static final int MINE = 0x10;
+    static final int REVEALED = 0x20;
+    static final int FLAGGED = 0x40;
+    // One shared cell for every combination of the packed bits above
+    private static final Cell[] SHARED = new Cell[0x80];
+
+    static {
+        for (int bits = 0; bits < SHARED.length; bits++) {
+            SHARED[bits] = new Cell(null, bits);
+        }
+    }
+
     private final Position position;
     private final boolean isMine;
     private final boolean isRevealed;
+    private final boolean isFlagged;
     private final int adjacentMines;
 
     private Cell(Builder builder) {
         this.position = builder.position;
         this.isMine = builder.isMine;
         this.isRevealed = builder.isRevealed;
+        this.isFlagged = builder.isFlagged;
         this.adjacentMines = builder.adjacentMines;
     }
 
+    private Cell(Position position, int bits) {
+        this.position = position;
+        this.isMine = (bits & MINE) != 0;
+        this.isRevealed = (bits & REVEALED) != 0;
+        this.isFlagged = (bits & FLAGGED) != 0;
+        this.adjacentMines = bits & ADJACENT_MASK;
+    }
+
+    /**
+     * @return the cell's position, or null for a shared cell
+     */
     public Position getPosition() { return position; }
     public boolean isMine() { return isMine; }
     public boolean isRevealed() { return isRevealed; }
+    public boolean isFlagged() { return isFlagged; }
     public int getAdjacentMines() { return adjacentMines; }
 
     /**
-     * Creates a new Cell with revealed state set to true.
-     * @return A new Cell instance with updated state
+     * Creates a new Cell with revealed state set to true and any flag removed.
+     * @return A new Cell instance with updated state, or the shared one if this cell is shared
      */
     public Cell reveal() {
+        if (position == null) {
+            return SHARED[(toBits() | REVEALED) & ~FLAGGED];
+        }
         return new Builder(this)
             .setRevealed(true)
+            .setFlagged(false)
             .build();
     }
 
-   
+    /**
+     * Creates a cell from its packed board representation.
+     */
+    static Cell fromBits(int row, int col, int bits) {
+        return fromBits(new Position(row, col), bits);
+    }
+
+    static Cell fromBits(Position position, int bits) {
+        return new Cell(position, bits & 0x7F);
+    }
+
+    /**
+     * Returns the shared cell for a packed state.
+     */
+    static Cell shared(int bits) {
+        return SHARED[bits & 0x7F];
+    }
+
+    /**
+     * Returns the packed board representation of this cell.
+     */
+    int toBits() {
+        return (isMine ? MINE : 0) | (isRevealed ? REVEALED : 0) | (isFlagged ? FLAGGED : 0) | adjacentMines;
+    }
+
+    /**
+     * Returns the display character for a packed cell.
+     */
+    static char displayChar(int bits) {
+        if ((bits & REVEALED) == 0) {
+            return (bits & FLAGGED) != 0 ? 'F' : '_';
+        }
+        if ((bits & MINE) != 0) {
+            return '*';
+        }
+        return Character.forDigit(bits & ADJACENT_MASK, 10);
+    }
 
     /**
      * Builder class for creating Cell instances.
@@ -41,6 +113,7 @@ public class Cell {
         private final Position position;
         private boolean isMine;
         private boolean isRevealed;
+        private boolean isFlagged;
         private int adjacentMines;
 
         public Builder(int row, int col) {
@@ -51,6 +124,7 @@ public class Cell {
             this.position = cell.position;
             this.isMine = cell.isMine;
             this.isRevealed = cell.isRevealed;
+            this.isFlagged = cell.isFlagged;
             this.adjacentMines = cell.adjacentMines;
         }
 
@@ -64,6 +138,11 @@ public class Cell {
             return this;
         }
 
+        public Builder setFlagged(boolean flagged) {
+            this.isFlagged = flagged;
+            return this;
+        }
+
 
 
         public Builder setAdjacentMines(int count) {
@@ -81,13 +160,7 @@ public class Cell {
      * @return char representation of the cell's current state
      */
     public char getDisplayChar() {
-        if (!isRevealed) {
-            return '_';
-        }
-        if (isMine) {
-            return '*';
-        }
-        return Character.forDigit(adjacentMines, 10);
+        return displayChar(toBits());
     }
 
     @Override
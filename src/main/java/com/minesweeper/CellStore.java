@@ -0,0 +1,205 @@
+package com.minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * Persistent array of packed cells backing a {@link Board}.
+ * Cells live in fixed-size leaves under a 32-way trie. An {@link Editor} copies only the
+ * nodes on the path to the cells it changes, so every earlier version stays valid and
+ * shares all untouched leaves with the new one.
+ */
+final class CellStore {
+    private static final int LEAF_BITS = 8;
+    private static final int LEAF_SIZE = 1 << LEAF_BITS;
+    private static final int LEAF_MASK = LEAF_SIZE - 1;
+    private static final int BRANCH_BITS = 5;
+    private static final int BRANCH_MASK = (1 << BRANCH_BITS) - 1;
+
+    private final int length;
+    private final int shift;
+    private final Node root;
+
+    private CellStore(int length, int shift, Node root) {
+        this.length = length;
+        this.shift = shift;
+        this.root = root;
+    }
+
+    /**
+     * Creates a store over the given cells without copying them. The initial leaves are
+     * windows into the array, so the caller must not modify it afterwards.
+     */
+    static CellStore of(byte[] cells) {
+        int shift = rootShift(cells.length);
+        return new CellStore(cells.length, shift, build(cells, 0, shift));
+    }
+
+    private static int rootShift(int length) {
+        int shift = LEAF_BITS;
+        while ((1L << (shift + BRANCH_BITS)) < length) {
+            shift += BRANCH_BITS;
+        }
+        return shift;
+    }
+
+    private static Node build(byte[] cells, int start, int shift) {
+        if (shift < LEAF_BITS) {
+            return new Node(null, null, cells, start);
+        }
+        long span = 1L << shift;
+        int count = (int) Math.max(1, Math.min(BRANCH_MASK + 1, (cells.length - start + span - 1) / span));
+        Node[] children = new Node[count];
+        for (int i = 0; i < count; i++) {
+            children[i] = build(cells, (int) (start + i * span), shift - BRANCH_BITS);
+        }
+        return new Node(null, children, null, 0);
+    }
+
+    int length() {
+        return length;
+    }
+
+    byte get(int index) {
+        return leaf(root, shift, index).get(index);
+    }
+
+    /**
+     * Copies all cells into a new array, a leaf at a time.
+     */
+    byte[] toArray() {
+        byte[] copy = new byte[length];
+        copyLeaves(root, shift, 0, copy);
+        return copy;
+    }
+
+    private static void copyLeaves(Node node, int shift, int start, byte[] copy) {
+        if (shift < LEAF_BITS) {
+            System.arraycopy(node.cells, node.offset, copy, start, Math.min(LEAF_SIZE, copy.length - start));
+            return;
+        }
+        for (int i = 0; i < node.children.length; i++) {
+            long childStart = start + ((long) i << shift);
+            if (childStart < copy.length) {
+                copyLeaves(node.children[i], shift - BRANCH_BITS, (int) childStart, copy);
+            }
+        }
+    }
+
+    /**
+     * Adds the index of every cell that differs from the given version to the queue, in
+     * ascending order. Subtrees both versions share are skipped, so for versions of one game
+     * the cost follows the leaves changed in between rather than the length.
+     * @throws IllegalArgumentException if the other store has a different length
+     */
+    void addDifferences(CellStore earlier, IntQueue differences) {
+        if (earlier.length != length) {
+            throw new IllegalArgumentException("Stores of " + earlier.length + " and " + length + " cells");
+        }
+        addDifferences(earlier.root, root, shift, 0, differences);
+    }
+
+    private void addDifferences(Node before, Node after, int shift, int start, IntQueue differences) {
+        if (before == after) {
+            return;
+        }
+        if (shift < LEAF_BITS) {
+            int end = Math.min(LEAF_SIZE, length - start);
+            for (int i = 0; i < end; i++) {
+                if (before.cells[before.offset + i] != after.cells[after.offset + i]) {
+                    differences.add(start + i);
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < after.children.length; i++) {
+            long childStart = start + ((long) i << shift);
+            if (childStart < length) {
+                addDifferences(before.children[i], after.children[i], shift - BRANCH_BITS, (int) childStart, differences);
+            }
+        }
+    }
+
+    /**
+     * Starts a batch of changes based on this version.
+     */
+    Editor edit() {
+        return new Editor();
+    }
+
+    private static Node leaf(Node node, int shift, int index) {
+        for (int s = shift; s >= LEAF_BITS; s -= BRANCH_BITS) {
+            node = node.children[(index >>> s) & BRANCH_MASK];
+        }
+        return node;
+    }
+
+    private static final class Node {
+        // Editor allowed to change this node in place; nodes of finished versions are never
+        // owned by a live editor.
+        private final Object owner;
+        private final Node[] children;
+        // Leaves read their cells from cells[offset...]; leaves of a freshly created store
+        // share one array, copied leaves own a small array starting at offset 0
+        private final byte[] cells;
+        private final int offset;
+
+        private Node(Object owner, Node[] children, byte[] cells, int offset) {
+            this.owner = owner;
+            this.children = children;
+            this.cells = cells;
+            this.offset = offset;
+        }
+
+        private byte get(int index) {
+            return cells[offset + (index & LEAF_MASK)];
+        }
+
+        private Node copyFor(Object newOwner) {
+            if (children != null) {
+                return new Node(newOwner, children.clone(), null, 0);
+            }
+            int end = Math.min(cells.length, offset + LEAF_SIZE);
+            return new Node(newOwner, null, Arrays.copyOfRange(cells, offset, end), 0);
+        }
+    }
+
+    /**
+     * Mutable view used to derive the next version. Nodes copied by an editor are owned by it
+     * and updated in place on later writes, so a batch copies each touched path only once.
+     */
+    final class Editor {
+        private Object owner = new Object();
+        private Node editRoot = root;
+
+        byte get(int index) {
+            return leaf(editRoot, shift, index).get(index);
+        }
+
+        void set(int index, byte value) {
+            if (owner == null) {
+                throw new IllegalStateException("Editor already built");
+            }
+            editRoot = editable(editRoot);
+            Node node = editRoot;
+            for (int s = shift; s >= LEAF_BITS; s -= BRANCH_BITS) {
+                int slot = (index >>> s) & BRANCH_MASK;
+                Node child = editable(node.children[slot]);
+                node.children[slot] = child;
+                node = child;
+            }
+            node.cells[index & LEAF_MASK] = value;
+        }
+
+        private Node editable(Node node) {
+            return node.owner == owner ? node : node.copyFor(owner);
+        }
+
+        /**
+         * Freezes the changes made so far into a new store. The editor cannot be used afterwards.
+         */
+        CellStore build() {
+            owner = null;
+            return editRoot == root ? CellStore.this : new CellStore(length, shift, editRoot);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.minesweeper;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latencies of a {@link GameEngine}: games started, moves, games won and lost, and
+ * a {@link LatencyHistogram} of how long each reveal took in the engine, journaling included.
+ * Read them with {@link #snapshot()}.
+ * <p>
+ * The engine records through this object on every move, so recording is a few uncontended
+ * {@link LongAdder} updates. A disabled instance, the engine's default, checks one final field
+ * and records nothing, not even the clock.
+ * <p>
+ * A game counts as won or lost by the move that finished it, judged from the board before and
+ * after that move. If two moves on the same game race and both see it finish, both count it.
+ * <p>
+ * Thread-safe.
+ */
+public final class EngineMetrics {
+    private static final EngineMetrics DISABLED = new EngineMetrics(false);
+
+    private final boolean enabled;
+    private final LongAdder gamesStarted = new LongAdder();
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder wins = new LongAdder();
+    private final LongAdder losses = new LongAdder();
+    private final LatencyHistogram revealLatency = new LatencyHistogram();
+
+    public EngineMetrics() {
+        this(true);
+    }
+
+    private EngineMetrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the shared instance that records nothing.
+     */
+    public static EngineMetrics disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    void recordGameStarted() {
+        if (enabled) {
+            gamesStarted.increment();
+        }
+    }
+
+    /**
+     * Returns the time a move starts, to pass to {@link #recordReveal}; 0 when disabled.
+     */
+    long startMove() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * @param before The board the move was made on, or null when disabled
+     * @param startNanos What {@link #startMove()} returned
+     */
+    void recordReveal(Board before, Board after, long startNanos) {
+        if (!enabled) {
+            return;
+        }
+        revealLatency.record(System.nanoTime() - startNanos);
+        moves.increment();
+        if (before.getGameState().isGameOver()) {
+            return;
+        }
+        if (after.getGameState() == GameState.WON) {
+            wins.increment();
+        } else if (after.getGameState() == GameState.LOST) {
+            losses.increment();
+        }
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(gamesStarted.sum(), moves.sum(), wins.sum(), losses.sum(), revealLatency.snapshot());
+    }
+
+    /**
+     * Metrics at one point in time.
+     */
+    public record Snapshot(long gamesStarted, long moves, long wins, long losses,
+            LatencyHistogram.Snapshot revealLatency) {
+        @Override
+        public String toString() {
+            return String.format("gamesStarted=%d moves=%d wins=%d losses=%d revealLatency=[%s]",
+                gamesStarted, moves, wins, losses, revealLatency);
+        }
+    }
+}
@@ -5,13 +5,20 @@ import java.util.regex.Pattern;
 
 /**
  * Manages the game flow and user interaction for Minesweeper.
+ * The console session is one client of a {@link GameEngine}, which owns the boards.
  */
 public class Game {
-    public static final Pattern INPUT_PATTERN = Pattern.compile("^[A-Za-z][1-9][0-9]?$", Pattern.CASE_INSENSITIVE);
+    public static final Pattern INPUT_PATTERN = Pattern.compile("^[A-Za-z]+[1-9][0-9]*$", Pattern.CASE_INSENSITIVE);
     private final Scanner scanner;
+    private final GameEngine engine;
 
     public Game() {
+        this(new GameEngine());
+    }
+
+    public Game(GameEngine engine) {
         this.scanner = new Scanner(System.in);
+        this.engine = engine;
     }
 
     public void start() {
@@ -28,6 +35,7 @@ public class Game {
             }
         }
         scanner.close();
+        engine.close();
     }
 
     private void playOneGame() {
@@ -35,7 +43,8 @@ public class Game {
         int maxMines = (int) (size * size * 0.35);
         int mineCount = promptMineCount(maxMines);
 
-        Board board = Board.create(size, mineCount);
+        String session = engine.newGame(size, size, mineCount);
+        Board board = engine.getBoard(session);
         GameState state;
 
         do {
@@ -53,7 +62,7 @@ public class Game {
                 }
             }
 
-            board = board.reveal(pos);
+            board = engine.reveal(session, pos);
             if (board.getGameState() == GameState.PLAYING) {
                 Cell cell = board.getCell(pos);
                 System.out.println("This square contains " + cell.getAdjacentMines() + " adjacent mines.");
@@ -61,6 +70,7 @@ public class Game {
 
             state = board.getGameState();
         } while (state == GameState.PLAYING);
+        engine.endGame(session);
 
         System.out.println("\nFinal board:");
         System.out.println(board);
@@ -107,7 +117,7 @@ public class Game {
             System.out.print("Enter position to reveal (e.g., A1): ");
             String input = scanner.nextLine().trim().toUpperCase();
             if (!INPUT_PATTERN.matcher(input).matches()) {
-                System.out.println("Invalid position format. Use letter followed by number (e.g., A1)");
+                System.out.println("Invalid position format. Use row letters followed by a column number (e.g., A1 or AB12)");
                 continue;
             }
             return input;
@@ -115,14 +125,14 @@ public class Game {
     }
 
     public Position parsePosition(String input, int size) {
-        int row = Character.toUpperCase(input.charAt(0)) - 'A';
-        int col = Integer.parseInt(input.substring(1)) - 1;
-        
-        if (row < 0 || row >= size || col < 0 || col >= size) {
-            throw new IllegalArgumentException("Position out of bounds");
-        }
-        
-        return new Position(row, col);
+        return parsePosition(input, size, size);
+    }
+
+    /**
+     * Parses a position such as "A1" or "AB12"; see {@link Position#parse}.
+     */
+    public Position parsePosition(String input, int rows, int columns) {
+        return Position.parse(input, rows, columns);
     }
 
     private boolean promptPlayAgain() {
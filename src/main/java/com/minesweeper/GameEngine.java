@@ -0,0 +1,139 @@
+package com.minesweeper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Runs any number of independent games, each identified by a session ID. The interactive
+ * {@link Game} and the network server are both clients of an engine.
+ * <p>
+ * With a {@link GameJournal}, the engine starts from the games recovered from it and journals
+ * every game start, reveal and end once it has been applied; a move returns only when its
+ * record is on disk. Reveals are journaled in the order they were published, even when players
+ * race on one session, so replay ends every game the way it ended live. Reveals that changed
+ * nothing are not journaled.
+ * <p>
+ * With enabled {@link EngineMetrics}, the engine counts games and moves and times every
+ * reveal; by default it records nothing.
+ * <p>
+ * Thread-safe.
+ */
+public class GameEngine implements AutoCloseable {
+    private final SessionRegistry sessions;
+    private final BoardPool boardPool;
+    private final GameJournal journal;
+    private final EngineMetrics metrics;
+
+    public GameEngine() {
+        this(new SessionRegistry(), new BoardPool());
+    }
+
+    public GameEngine(SessionRegistry sessions, BoardPool boardPool) {
+        this(sessions, boardPool, null);
+    }
+
+    /**
+     * @param journal Journal to recover from and write to, or null to keep games in memory only
+     */
+    public GameEngine(SessionRegistry sessions, BoardPool boardPool, GameJournal journal) {
+        this(sessions, boardPool, journal, EngineMetrics.disabled());
+    }
+
+    /**
+     * @param journal Journal to recover from and write to, or null to keep games in memory only
+     * @param metrics Metrics to record into, or {@link EngineMetrics#disabled()}
+     */
+    public GameEngine(SessionRegistry sessions, BoardPool boardPool, GameJournal journal, EngineMetrics metrics) {
+        this.sessions = sessions;
+        this.boardPool = boardPool;
+        this.journal = journal;
+        this.metrics = metrics;
+        if (journal != null) {
+            journal.getRecoveredSessions().forEach(sessions::put);
+        }
+    }
+
+    /**
+     * Starts a game on a fresh board.
+     * @return the new session ID
+     * @throws IllegalArgumentException if the dimensions or mine count are out of range
+     */
+    public String newGame(int rows, int columns, int mineCount) {
+        Board board = boardPool.take(rows, columns, mineCount);
+        String session = sessions.add(board);
+        if (journal != null) {
+            journal.logNew(session, board.getSeed().orElseThrow(), rows, columns, mineCount);
+            journal.snapshotIfDue(sessions::snapshot);
+        }
+        metrics.recordGameStarted();
+        return session;
+    }
+
+    /**
+     * Reveals a cell in the given session. Out-of-range positions and moves after the game
+     * is over leave the board unchanged.
+     * @return the board after the move
+     * @throws IllegalArgumentException if there is no such session
+     */
+    public Board reveal(String session, Position position) {
+        Board before = metrics.isEnabled() ? sessions.get(session) : null;
+        long start = metrics.startMove();
+        Board board;
+        if (journal == null) {
+            board = sessions.reveal(session, position);
+        } else {
+            long[] record = {0};
+            board = sessions.reveal(session, position, published -> record[0] =
+                journal.enqueueReveal(session, position.row() * published.getColumns() + position.col()));
+            if (record[0] != 0) {
+                journal.awaitDurable(record[0]);
+                journal.snapshotIfDue(sessions::snapshot);
+            }
+        }
+        metrics.recordReveal(before, board, start);
+        return board;
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no such session
+     */
+    public Board getBoard(String session) {
+        return sessions.get(session);
+    }
+
+    /**
+     * Forgets a session. Its ID is not valid afterwards.
+     */
+    public void endGame(String session) {
+        if (sessions.remove(session) && journal != null) {
+            journal.logEnd(session);
+        }
+    }
+
+    public boolean hasSession(String session) {
+        return sessions.contains(session);
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public EngineMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Closes the board pool and the journal, if any.
+     */
+    @Override
+    public void close() {
+        boardPool.close();
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
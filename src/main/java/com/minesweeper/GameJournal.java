@@ -0,0 +1,512 @@
+package com.minesweeper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+
+/**
+ * Durable record of the games of a {@link GameEngine}: an append-only journal of moves plus
+ * periodic snapshots of every session.
+ * <p>
+ * Records are small fixed-size binary entries, each followed by a CRC32C:
+ * <ul>
+ *   <li>NEW: session, seed, rows, columns, mines;</li>
+ *   <li>REVEAL: session, linear cell index;</li>
+ *   <li>END: session.</li>
+ * </ul>
+ * They are appended through a {@link FileChannel} with group commit: callers block until
+ * their record is on disk, while a single writer thread writes and forces everything queued
+ * since its last write in one go, so concurrent moves share one fsync.
+ * <p>
+ * Boards are rebuilt from their seeds, so every segment and snapshot starts with the
+ * {@link Board#LAYOUT_VERSION} it was written under, and recovery refuses files from another
+ * version rather than replay moves onto a different minefield.
+ * <p>
+ * The journal is split into numbered segments. A snapshot first starts a new segment and then
+ * stores every board (seed, dimensions and revealed cells), after which older segments are
+ * deleted. Recovery loads the latest snapshot and replays only the segments after it, so its
+ * cost is bounded by the snapshot interval rather than the age of the games. Moves are applied
+ * before they are journaled, and replaying a reveal or a game start that the snapshot already
+ * contains changes nothing, so a snapshot taken concurrently with moves is still correct. A
+ * torn record at the end of a segment, left by a crash mid-write, ends the replay of that
+ * segment.
+ * <p>
+ * Thread-safe.
+ */
+public class GameJournal implements AutoCloseable {
+    private static final int DEFAULT_SNAPSHOT_INTERVAL = 100_000;
+    private static final byte NEW = 1;
+    private static final byte REVEAL = 2;
+    private static final byte END = 3;
+    private static final int MAX_RECORD_BYTES = 1 + 8 + 8 + 4 + 4 + 4 + 4;
+    private static final int SEGMENT_MAGIC = 0x4D534A4C; // "MSJL"
+    private static final int SEGMENT_HEADER_BYTES = 8;
+    private static final int SNAPSHOT_MAGIC = 0x4D534A53; // "MSJS"
+    private static final int SNAPSHOT_VERSION = 2;
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final Pattern SEGMENT_NAME = Pattern.compile("journal-(\\d+)\\.log");
+
+    private final Path directory;
+    private final int snapshotInterval;
+    private final Map<String, Board> recovered;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition recordsPending = lock.newCondition();
+    private final Condition recordsWritten = lock.newCondition();
+    private final AtomicLong recordsSinceSnapshot = new AtomicLong();
+    private final AtomicBoolean snapshotRunning = new AtomicBoolean();
+    private final CRC32C checksum = new CRC32C();
+    private final Thread writer;
+    // The last background snapshot started, which close() waits for
+    private volatile Thread snapshotter;
+    // Guarded by lock
+    private ByteBuffer pending = ByteBuffer.allocate(1 << 16);
+    private ByteBuffer writing = ByteBuffer.allocate(1 << 16);
+    private long appended;
+    private long durable;
+    private FileChannel channel;
+    private long segment;
+    private IOException failure;
+    private boolean closed;
+
+    /**
+     * Opens the journal in the given directory, creating it if needed, and recovers the games
+     * recorded there.
+     * @throws IOException also if the journal was written under another mine layout version
+     */
+    public GameJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * @param snapshotInterval Number of records after which {@link #snapshotIfDue} takes a snapshot
+     */
+    public GameJournal(Path directory, int snapshotInterval) throws IOException {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("Snapshot interval must be positive");
+        }
+        this.directory = directory;
+        this.snapshotInterval = snapshotInterval;
+        Files.createDirectories(directory);
+        Map<String, Board> boards = new HashMap<>();
+        long lastSegment = readSnapshot(boards);
+        for (long number : segments()) {
+            if (number > lastSegment) {
+                replay(segmentPath(number), boards);
+                lastSegment = number;
+            }
+        }
+        this.recovered = boards;
+        this.segment = lastSegment + 1;
+        this.channel = openSegment(segment);
+        this.writer = Thread.ofVirtual().name("minesweeper-journal").start(this::writeLoop);
+    }
+
+    /**
+     * Returns the games found in the journal when it was opened, by session ID.
+     */
+    public Map<String, Board> getRecoveredSessions() {
+        return recovered;
+    }
+
+    public void logNew(String session, long seed, int rows, int columns, int mineCount) {
+        append(buffer -> buffer.put(NEW).putLong(sessionKey(session)).putLong(seed)
+            .putInt(rows).putInt(columns).putInt(mineCount));
+    }
+
+    public void logReveal(String session, int index) {
+        awaitDurable(enqueueReveal(session, index));
+    }
+
+    /**
+     * Queues a reveal record without waiting for it to reach the disk, so a caller can queue it
+     * while holding a lock that orders it with other moves, then wait outside it.
+     * @return the sequence number to pass to {@link #awaitDurable}
+     */
+    long enqueueReveal(String session, int index) {
+        return enqueue(buffer -> buffer.put(REVEAL).putLong(sessionKey(session)).putInt(index));
+    }
+
+    public void logEnd(String session) {
+        append(buffer -> buffer.put(END).putLong(sessionKey(session)));
+    }
+
+    /**
+     * Starts a snapshot in the background once enough records have been written since the last one.
+     * @param sessions Supplies the current board of every session when the snapshot is taken
+     */
+    public void snapshotIfDue(Supplier<Map<String, Board>> sessions) {
+        if (recordsSinceSnapshot.get() < snapshotInterval || !snapshotRunning.compareAndSet(false, true)) {
+            return;
+        }
+        Thread thread = Thread.ofVirtual().name("minesweeper-snapshot").unstarted(() -> {
+            try {
+                snapshot(sessions);
+            } catch (IOException | IllegalStateException e) {
+                // The journal still holds every record; the next due snapshot tries again
+            } finally {
+                snapshotRunning.set(false);
+            }
+        });
+        snapshotter = thread;
+        thread.start();
+    }
+
+    /**
+     * Writes a snapshot of the given sessions and deletes the journal segments it covers.
+     * @param sessions Supplies the current board of every session; called after the journal
+     *        has moved to a new segment, so it sees at least every move journaled before
+     */
+    public void snapshot(Supplier<Map<String, Board>> sessions) throws IOException {
+        long covered;
+        lock.lock();
+        try {
+            while (durable < appended && failure == null && !closed) {
+                recordsWritten.awaitUninterruptibly();
+            }
+            checkUsable();
+            covered = segment;
+            FileChannel next = openSegment(covered + 1);
+            channel.close();
+            channel = next;
+            segment = covered + 1;
+            recordsSinceSnapshot.set(0);
+        } finally {
+            lock.unlock();
+        }
+        writeSnapshot(covered, sessions.get());
+        for (long number : segments()) {
+            if (number <= covered) {
+                Files.deleteIfExists(segmentPath(number));
+            }
+        }
+    }
+
+    private void append(Consumer<ByteBuffer> record) {
+        awaitDurable(enqueue(record));
+    }
+
+    // Adds a record to the pending batch; records reach the disk in the order they are queued
+    private long enqueue(Consumer<ByteBuffer> record) {
+        long sequence;
+        lock.lock();
+        try {
+            checkUsable();
+            if (pending.remaining() < MAX_RECORD_BYTES + 4) {
+                ByteBuffer grown = ByteBuffer.allocate(pending.capacity() * 2);
+                grown.put(pending.flip());
+                pending = grown;
+            }
+            int start = pending.position();
+            record.accept(pending);
+            checksum.reset();
+            checksum.update(pending.array(), start, pending.position() - start);
+            pending.putInt((int) checksum.getValue());
+            sequence = ++appended;
+            recordsPending.signal();
+        } finally {
+            lock.unlock();
+        }
+        recordsSinceSnapshot.incrementAndGet();
+        return sequence;
+    }
+
+    /**
+     * Waits until the record with the given sequence number, and every one queued before it, is
+     * on disk.
+     */
+    void awaitDurable(long sequence) {
+        lock.lock();
+        try {
+            while (durable < sequence) {
+                if (failure != null) {
+                    throw new UncheckedIOException("Journal write failed", failure);
+                }
+                recordsWritten.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkUsable() {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Journal write failed", failure);
+        }
+    }
+
+    // Writes batches of pending records, one write and one force per batch
+    private void writeLoop() {
+        lock.lock();
+        try {
+            while (true) {
+                while (pending.position() == 0 && !closed) {
+                    recordsPending.awaitUninterruptibly();
+                }
+                if (pending.position() == 0) {
+                    return;
+                }
+                ByteBuffer batch = pending;
+                pending = writing;
+                writing = batch;
+                long target = appended;
+                FileChannel out = channel;
+                IOException error = null;
+                lock.unlock();
+                try {
+                    batch.flip();
+                    while (batch.hasRemaining()) {
+                        out.write(batch);
+                    }
+                    out.force(false);
+                } catch (IOException e) {
+                    error = e;
+                } finally {
+                    batch.clear();
+                    lock.lock();
+                }
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durable = target;
+                }
+                recordsWritten.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for pending records and any background snapshot to be written and closes the journal.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            recordsPending.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join();
+            // A snapshot started after closing fails before writing anything, so only earlier ones matter
+            Thread snapshot = snapshotter;
+            if (snapshot != null) {
+                snapshot.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long sessionKey(String session) {
+        try {
+            return Long.parseUnsignedLong(session, 16);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Session ID " + session + " is not a journal key");
+        }
+    }
+
+    private static String sessionId(long key) {
+        return Long.toHexString(key);
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("journal-%016d.log", number));
+    }
+
+    // Opens a segment for appending; a new one gets its header, made durable with the first records
+    private FileChannel openSegment(long number) throws IOException {
+        FileChannel segmentChannel = FileChannel.open(segmentPath(number), StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        try {
+            if (segmentChannel.size() == 0) {
+                writeFully(segmentChannel, ByteBuffer.allocate(SEGMENT_HEADER_BYTES).putInt(SEGMENT_MAGIC)
+                    .putInt(Board.LAYOUT_VERSION));
+            }
+            return segmentChannel;
+        } catch (IOException e) {
+            segmentChannel.close();
+            throw e;
+        }
+    }
+
+    private static void checkLayoutVersion(int version, Path file) throws IOException {
+        if (version != Board.LAYOUT_VERSION) {
+            throw new IOException(file + " was written under mine layout version " + version
+                + " but this build generates version " + Board.LAYOUT_VERSION
+                + "; its seeds would give different boards");
+        }
+    }
+
+    private List<Long> segments() throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (var files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    numbers.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        numbers.sort(null);
+        return numbers;
+    }
+
+    private static void replay(Path file, Map<String, Board> boards) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < SEGMENT_HEADER_BYTES) {
+            return; // Crashed before the header was written, so before any record was acknowledged
+        }
+        if (buffer.getInt() != SEGMENT_MAGIC) {
+            throw new IOException("Not a journal segment: " + file);
+        }
+        checkLayoutVersion(buffer.getInt(), file);
+        CRC32C crc = new CRC32C();
+        while (buffer.hasRemaining()) {
+            int start = buffer.position();
+            byte type = buffer.get();
+            int length = switch (type) {
+                case NEW -> 8 + 8 + 4 + 4 + 4;
+                case REVEAL -> 8 + 4;
+                case END -> 8;
+                default -> -1;
+            };
+            if (length < 0 || buffer.remaining() < length + 4) {
+                return; // Torn or unknown record: nothing after it was acknowledged
+            }
+            crc.reset();
+            crc.update(buffer.array(), start, 1 + length);
+            if ((int) crc.getValue() != buffer.getInt(start + 1 + length)) {
+                return;
+            }
+            String session = sessionId(buffer.getLong());
+            switch (type) {
+                case NEW -> {
+                    long seed = buffer.getLong();
+                    int rows = buffer.getInt();
+                    int columns = buffer.getInt();
+                    int mines = buffer.getInt();
+                    boards.computeIfAbsent(session, id -> new Board.Builder(rows, columns)
+                        .setMineCount(mines).setSeed(seed).build());
+                }
+                case REVEAL -> {
+                    int index = buffer.getInt();
+                    boards.computeIfPresent(session, (id, board) ->
+                        board.reveal(new Position(index / board.getColumns(), index % board.getColumns())));
+                }
+                default -> boards.remove(session);
+            }
+            buffer.getInt(); // checksum
+        }
+    }
+
+    private void writeSnapshot(long coveredSegment, Map<String, Board> sessions) throws IOException {
+        List<Map.Entry<String, Board>> entries = new ArrayList<>();
+        for (Map.Entry<String, Board> entry : sessions.entrySet()) {
+            if (entry.getValue().getSeed().isPresent()) {
+                entries.add(entry);
+            }
+        }
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+            buffer.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putInt(Board.LAYOUT_VERSION)
+                .putLong(coveredSegment).putInt(entries.size());
+            for (Map.Entry<String, Board> entry : entries) {
+                Board board = entry.getValue();
+                long[] revealed = board.revealedBits();
+                int size = 8 + 8 + 4 + 4 + 4 + 4 + revealed.length * 8;
+                if (buffer.remaining() < size) {
+                    writeFully(out, buffer);
+                    if (buffer.capacity() < size) {
+                        buffer = ByteBuffer.allocate(size);
+                    }
+                }
+                buffer.putLong(sessionKey(entry.getKey())).putLong(board.getSeed().getAsLong())
+                    .putInt(board.getRows()).putInt(board.getColumns()).putInt(board.getMineCount())
+                    .putInt(revealed.length);
+                for (long word : revealed) {
+                    buffer.putLong(word);
+                }
+            }
+            writeFully(out, buffer);
+            out.force(true);
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Loads the boards in the snapshot, if there is one.
+     * @return the last segment the snapshot covers, or 0 if there is none
+     */
+    private long readSnapshot(Map<String, Board> boards) throws IOException {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Not a journal snapshot: " + file);
+            }
+            checkLayoutVersion(buffer.getInt(), file);
+            long coveredSegment = buffer.getLong();
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                String session = sessionId(buffer.getLong());
+                long seed = buffer.getLong();
+                int rows = buffer.getInt();
+                int columns = buffer.getInt();
+                int mines = buffer.getInt();
+                long[] revealed = new long[buffer.getInt()];
+                buffer.asLongBuffer().get(revealed);
+                buffer.position(buffer.position() + revealed.length * 8);
+                Board board = new Board.Builder(rows, columns).setMineCount(mines).setSeed(seed).build();
+                boards.put(session, board.withRevealed(revealed));
+            }
+            return coveredSegment;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.minesweeper;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * An unbounded minefield for stress and endurance runs.
+ * The plane is split into 32x32 chunks. Each chunk's mines are generated on demand from the
+ * board seed and the chunk coordinate with {@link Board#placeMines}, and adjacency counts are
+ * computed with {@link Board#calculateAdjacentMines} over the chunk plus a one-cell halo taken
+ * from its neighbours, so counts are correct across chunk borders.
+ * <p>
+ * Only a bounded number of chunks is kept decoded, in least-recently-used order. An evicted
+ * chunk keeps just its revealed cells as a bitset, or nothing at all if none were revealed,
+ * because everything else can be generated again. Memory therefore grows with the explored
+ * area only.
+ * <p>
+ * Unlike {@link Board}, this board is updated in place and is not thread-safe.
+ */
+public class InfiniteBoard {
+    private static final int CHUNK_BITS = 5;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int CHUNK_CELLS = CHUNK_SIZE * CHUNK_SIZE;
+    private static final int HALO_SIZE = CHUNK_SIZE + 2;
+    // Below about 10% the zero cells percolate and a cascade would never end
+    private static final double MIN_MINE_DENSITY = 0.15;
+    private static final double MAX_MINE_DENSITY = 0.35;
+    private static final int DEFAULT_MAX_LOADED_CHUNKS = 1024;
+
+    private final long seed;
+    private final int minesPerChunk;
+    private final int maxLoadedChunks;
+    private final Map<Long, byte[]> loadedChunks;
+    private final Map<Long, long[]> evictedChunks = new HashMap<>();
+    private GameState gameState = GameState.PLAYING;
+    private long revealedCount;
+
+    public InfiniteBoard(long seed, double mineDensity) {
+        this(seed, mineDensity, DEFAULT_MAX_LOADED_CHUNKS);
+    }
+
+    public InfiniteBoard(long seed, double mineDensity, int maxLoadedChunks) {
+        if (mineDensity < MIN_MINE_DENSITY || mineDensity > MAX_MINE_DENSITY) {
+            throw new IllegalArgumentException(
+                "Mine density must be between " + MIN_MINE_DENSITY + " and " + MAX_MINE_DENSITY);
+        }
+        if (maxLoadedChunks < 1) {
+            throw new IllegalArgumentException("At least one chunk must stay loaded");
+        }
+        this.seed = seed;
+        this.minesPerChunk = (int) Math.round(CHUNK_CELLS * mineDensity);
+        this.maxLoadedChunks = maxLoadedChunks;
+        this.loadedChunks = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+                if (size() <= InfiniteBoard.this.maxLoadedChunks) {
+                    return false;
+                }
+                evict(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Reveals a cell, cascading through zero cells across chunk borders.
+     * @return the game state after the move
+     */
+    public GameState reveal(Position position) {
+        if (gameState.isGameOver()) {
+            return gameState;
+        }
+        byte[] chunk = chunk(position.row(), position.col());
+        int offset = offset(position.row(), position.col());
+        int cell = chunk[offset];
+        if ((cell & Cell.REVEALED) != 0) {
+            return gameState;
+        }
+        chunk[offset] = (byte) (cell | Cell.REVEALED);
+        revealedCount++;
+        if ((cell & Cell.MINE) != 0) {
+            gameState = GameState.LOST;
+        } else if ((cell & Cell.ADJACENT_MASK) == 0) {
+            revealAdjacentCells(position.row(), position.col());
+        }
+        return gameState;
+    }
+
+    /**
+     * Same flood fill as {@link Board}, on global coordinates. The queue holds (row, col)
+     * pairs as consecutive ints.
+     */
+    private void revealAdjacentCells(int startRow, int startCol) {
+        IntQueue queue = new IntQueue();
+        queue.add(startRow);
+        queue.add(startCol);
+
+        while (!queue.isEmpty()) {
+            int row = queue.poll();
+            int col = queue.poll();
+            for (int r = row - 1; r <= row + 1; r++) {
+                for (int c = col - 1; c <= col + 1; c++) {
+                    byte[] chunk = chunk(r, c);
+                    int offset = offset(r, c);
+                    int cell = chunk[offset];
+                    if ((cell & (Cell.REVEALED | Cell.MINE)) == 0) {
+                        chunk[offset] = (byte) (cell | Cell.REVEALED);
+                        revealedCount++;
+                        if ((cell & Cell.ADJACENT_MASK) == 0) {
+                            queue.add(r);
+                            queue.add(c);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public Cell getCell(Position position) {
+        return Cell.fromBits(position,
+            chunk(position.row(), position.col())[offset(position.row(), position.col())]);
+    }
+
+    public GameState getGameState() {
+        return gameState;
+    }
+
+    public long getRevealedCount() {
+        return revealedCount;
+    }
+
+    public int getLoadedChunkCount() {
+        return loadedChunks.size();
+    }
+
+    public int getEvictedChunkCount() {
+        return evictedChunks.size();
+    }
+
+    private static long chunkKey(int row, int col) {
+        return ((long) (row >> CHUNK_BITS) << 32) | ((col >> CHUNK_BITS) & 0xFFFFFFFFL);
+    }
+
+    private static int offset(int row, int col) {
+        return (row & CHUNK_MASK) * CHUNK_SIZE + (col & CHUNK_MASK);
+    }
+
+    private byte[] chunk(int row, int col) {
+        long key = chunkKey(row, col);
+        byte[] chunk = loadedChunks.get(key);
+        if (chunk == null) {
+            chunk = generate((int) (key >> 32), (int) key);
+            long[] revealed = evictedChunks.remove(key);
+            if (revealed != null) {
+                for (int i = 0; i < CHUNK_CELLS; i++) {
+                    if ((revealed[i >>> 6] & (1L << i)) != 0) {
+                        chunk[i] |= Cell.REVEALED;
+                    }
+                }
+            }
+            loadedChunks.put(key, chunk);
+        }
+        return chunk;
+    }
+
+    private void evict(long key, byte[] chunk) {
+        long[] revealed = null;
+        for (int i = 0; i < CHUNK_CELLS; i++) {
+            if ((chunk[i] & Cell.REVEALED) != 0) {
+                if (revealed == null) {
+                    revealed = new long[CHUNK_CELLS / Long.SIZE];
+                }
+                revealed[i >>> 6] |= 1L << i;
+            }
+        }
+        if (revealed != null) {
+            evictedChunks.put(key, revealed);
+        }
+    }
+
+    /**
+     * Generates the cells of a chunk: its own mines plus a one-cell halo of neighbour mines,
+     * then adjacency counts over the haloed grid.
+     */
+    private byte[] generate(int chunkRow, int chunkCol) {
+        byte[] halo = new byte[HALO_SIZE * HALO_SIZE];
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                byte[] mines = mines(chunkRow + dr, chunkCol + dc);
+                int fromRow = dr < 0 ? CHUNK_SIZE - 1 : 0;
+                int toRow = dr > 0 ? 0 : CHUNK_SIZE - 1;
+                int fromCol = dc < 0 ? CHUNK_SIZE - 1 : 0;
+                int toCol = dc > 0 ? 0 : CHUNK_SIZE - 1;
+                for (int r = fromRow; r <= toRow; r++) {
+                    int haloRow = r + 1 + dr * CHUNK_SIZE;
+                    for (int c = fromCol; c <= toCol; c++) {
+                        halo[haloRow * HALO_SIZE + c + 1 + dc * CHUNK_SIZE] = mines[r * CHUNK_SIZE + c];
+                    }
+                }
+            }
+        }
+        Board.calculateAdjacentMines(halo, HALO_SIZE, HALO_SIZE);
+        byte[] chunk = new byte[CHUNK_CELLS];
+        for (int r = 0; r < CHUNK_SIZE; r++) {
+            System.arraycopy(halo, (r + 1) * HALO_SIZE + 1, chunk, r * CHUNK_SIZE, CHUNK_SIZE);
+        }
+        return chunk;
+    }
+
+    private byte[] mines(int chunkRow, int chunkCol) {
+        byte[] mines = new byte[CHUNK_CELLS];
+        long chunkSeed = mix(seed + mix(((long) chunkRow << 32) | (chunkCol & 0xFFFFFFFFL)));
+        Board.placeMines(mines, minesPerChunk, new SplittableRandom(chunkSeed));
+        return mines;
+    }
+
+    // SplitMix64 finalizer: spreads neighbouring chunk coordinates over unrelated seeds
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
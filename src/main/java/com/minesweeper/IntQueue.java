@@ -0,0 +1,67 @@
+package com.minesweeper;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Growable FIFO ring buffer of primitive ints, used by the flood fill and the solver so that
+ * queuing a cell index never boxes or allocates a node.
+ */
+public final class IntQueue {
+    private int[] elements;
+    private int head;
+    private int count;
+
+    public IntQueue() {
+        this(64);
+    }
+
+    public IntQueue(int initialCapacity) {
+        elements = new int[Integer.highestOneBit(Math.max(2, initialCapacity - 1)) << 1];
+    }
+
+    public void add(int value) {
+        if (count == elements.length) {
+            grow();
+        }
+        elements[(head + count) & (elements.length - 1)] = value;
+        count++;
+    }
+
+    public int poll() {
+        if (count == 0) {
+            throw new NoSuchElementException();
+        }
+        int value = elements[head];
+        head = (head + 1) & (elements.length - 1);
+        count--;
+        return value;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns the queued values in order without removing them.
+     */
+    public int[] toArray() {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = elements[(head + i) & (elements.length - 1)];
+        }
+        return values;
+    }
+
+    private void grow() {
+        int[] grown = new int[elements.length << 1];
+        int firstPart = elements.length - head;
+        System.arraycopy(elements, head, grown, 0, firstPart);
+        System.arraycopy(elements, 0, grown, firstPart, head);
+        elements = grown;
+        head = 0;
+    }
+}
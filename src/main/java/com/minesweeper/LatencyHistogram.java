@@ -0,0 +1,100 @@
+package com.minesweeper;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations in nanoseconds with logarithmic buckets, in the manner of
+ * HdrHistogram. Each power of two is split into {@value #SUB_BUCKETS} linear sub-buckets, so a
+ * bucket spans at most an eighth of its values and every percentile is reported within 12.5% of
+ * the true value, from nanoseconds to centuries, in a fixed 488 buckets.
+ * <p>
+ * Recording computes the bucket and updates striped {@link LongAdder} cells, so threads recording
+ * concurrently do not contend. A snapshot taken while others record may be slightly out of
+ * step between its count and its buckets. Thread-safe.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Values below SUB_BUCKETS get a bucket each, then each power of two up to 2^62 gets SUB_BUCKETS
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one duration; negative durations count as zero.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[bucket(value)].increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    // Largest value that falls in the bucket
+    static long highestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    public Snapshot snapshot() {
+        long[] buckets = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = counts[i].sum();
+            count += buckets[i];
+        }
+        long maximum = max.get();
+        return new Snapshot(count, count == 0 ? 0 : (double) total.sum() / count, maximum,
+            percentile(buckets, count, 50, maximum), percentile(buckets, count, 90, maximum),
+            percentile(buckets, count, 99, maximum), percentile(buckets, count, 99.9, maximum));
+    }
+
+    // The highest value of the bucket holding the given rank, capped at the largest value seen
+    private static long percentile(long[] buckets, long count, double percentile, long maximum) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(highestValue(i), maximum);
+            }
+        }
+        return maximum;
+    }
+
+    /**
+     * Recorded durations at one point in time, in nanoseconds.
+     */
+    public record Snapshot(long count, double mean, long max, long p50, long p90, long p99, long p999) {
+        @Override
+        public String toString() {
+            return String.format("count=%d mean=%.0fns p50=%dns p90=%dns p99=%dns p99.9=%dns max=%dns",
+                count, mean, p50, p90, p99, p999, max);
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package com.minesweeper;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A board stored off-heap in a memory-mapped file, for boards with billions of cells.
+ * <p>
+ * Cells are nibble-packed, two per byte: 0-8 is the adjacent mine count and {@link #MINE_NIBBLE}
+ * marks a mine, so unlike {@link Board} a mine cell reports no adjacent count. Revealed cells
+ * are a separate bit plane. The file starts with a header holding the dimensions and counters,
+ * so a board can be reopened later. The file is mapped in segments of up to 1 GiB, since a
+ * single mapping is limited to 2 GiB; the operating system pages cells in as they are touched,
+ * so a cascade only loads the region it spreads over.
+ * <p>
+ * Mines are placed with Floyd's algorithm on the mine nibbles themselves. Adjacency is then
+ * computed in one streaming pass that keeps three rows of mine flags and slides a column-sum
+ * window along them, so the file is read and written sequentially.
+ * <p>
+ * Reveal, cell and game state semantics match {@link Board}, but like {@link InfiniteBoard}
+ * the board is updated in place: {@link #reveal(Position)} returns the new state. Changes reach
+ * the file when the operating system writes the pages back, or on {@link #flush()} and
+ * {@link #close()}. Not thread-safe.
+ */
+public class MappedBoard implements AutoCloseable {
+    static final int MINE_NIBBLE = 0x0F;
+    private static final int MAGIC = 0x4D53424D; // "MSBM"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+    private static final int MIN_SIZE = 2;
+    private static final double MAX_MINE_PERCENTAGE = 0.35;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final int rows;
+    private final int columns;
+    private final long cellCount;
+    private final long mineCount;
+    private final long revealedOffset;
+    private long hiddenSafeCells;
+    private GameState gameState;
+
+    private MappedBoard(FileChannel channel, int rows, int columns, long mineCount) throws IOException {
+        this.channel = channel;
+        this.rows = rows;
+        this.columns = columns;
+        this.cellCount = (long) rows * columns;
+        this.mineCount = mineCount;
+        this.revealedOffset = revealedOffset(cellCount);
+        long fileSize = fileSize(cellCount);
+        int segmentCount = (int) ((fileSize + SEGMENT_MASK) >>> SEGMENT_BITS);
+        this.segments = new MappedByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long start = (long) i << SEGMENT_BITS;
+            segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, start, Math.min(1L << SEGMENT_BITS, fileSize - start));
+        }
+    }
+
+    /**
+     * Creates a board in the given file, replacing its contents.
+     * @throws IllegalArgumentException if the dimensions or mine count are out of range
+     */
+    public static MappedBoard create(Path file, int rows, int columns, long mineCount, long seed) throws IOException {
+        checkSize(rows, columns, mineCount);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            MappedBoard board = new MappedBoard(channel, rows, columns, mineCount);
+            board.placeMines(new SplittableRandom(seed));
+            board.calculateAdjacentMines();
+            board.hiddenSafeCells = board.cellCount - mineCount;
+            board.gameState = GameState.PLAYING;
+            board.writeHeader();
+            return board;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a board previously created in the given file.
+     * @throws IllegalArgumentException if the file does not hold a board, or its header does not
+     *         match its size. The header is checked before the file is mapped for writing, since
+     *         that would grow a truncated file.
+     */
+    public static MappedBoard open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(HEADER_BYTES, channel.size()));
+            if (header.limit() < HEADER_BYTES || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IllegalArgumentException("Not a mapped board file: " + file);
+            }
+            int rows = header.getInt(8);
+            int columns = header.getInt(12);
+            long mineCount = header.getLong(16);
+            long hiddenSafeCells = header.getLong(24);
+            int state = header.getInt(32);
+            checkSize(rows, columns, mineCount);
+            long cellCount = (long) rows * columns;
+            if (channel.size() != fileSize(cellCount)) {
+                throw new IllegalArgumentException("Mapped board file " + file + " has " + channel.size()
+                    + " bytes but its header needs " + fileSize(cellCount));
+            }
+            if (hiddenSafeCells < 0 || hiddenSafeCells > cellCount - mineCount) {
+                throw new IllegalArgumentException("Hidden safe cell count out of range: " + hiddenSafeCells);
+            }
+            if (state < 0 || state >= GameState.values().length) {
+                throw new IllegalArgumentException("Unknown game state: " + state);
+            }
+            MappedBoard board = new MappedBoard(channel, rows, columns, mineCount);
+            board.hiddenSafeCells = hiddenSafeCells;
+            board.gameState = GameState.values()[state];
+            return board;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static void checkSize(int rows, int columns, long mineCount) {
+        if (rows < MIN_SIZE || columns < MIN_SIZE) {
+            throw new IllegalArgumentException(
+                "Board must have at least " + MIN_SIZE + " rows and " + MIN_SIZE + " columns");
+        }
+        long maxMines = (long) ((long) rows * columns * MAX_MINE_PERCENTAGE);
+        if (mineCount < 1 || mineCount > maxMines) {
+            throw new IllegalArgumentException("Mine count must be between 1 and " + maxMines);
+        }
+    }
+
+    // The nibble plane is padded to whole longs, as is the revealed plane after it
+    private static long revealedOffset(long cellCount) {
+        return HEADER_BYTES + ((cellCount + 15) / 16) * 8;
+    }
+
+    private static long fileSize(long cellCount) {
+        return revealedOffset(cellCount) + ((cellCount + 63) / 64) * 8;
+    }
+
+    /**
+     * Floyd's sampling over linear cell indices, as in {@link Board#placeMines}, using the mine
+     * nibble as the membership test.
+     */
+    private void placeMines(SplittableRandom random) {
+        for (long j = cellCount - mineCount; j < cellCount; j++) {
+            long pick = random.nextLong(j + 1);
+            if (nibble(pick) == MINE_NIBBLE) {
+                pick = j;
+            }
+            setNibble(pick, MINE_NIBBLE);
+        }
+    }
+
+    /**
+     * Computes every count in one pass over the rows. Keeps the mine flags of the rows above,
+     * at and below the current one, sums each column of the three, and slides a window of
+     * three column sums along the row.
+     */
+    private void calculateAdjacentMines() {
+        byte[] above = new byte[columns];
+        byte[] current = new byte[columns];
+        byte[] below = new byte[columns];
+        int[] columnSums = new int[columns];
+        readMineRow(0, current);
+        for (int row = 0; row < rows; row++) {
+            if (row + 1 < rows) {
+                readMineRow(row + 1, below);
+            } else {
+                Arrays.fill(below, (byte) 0);
+            }
+            for (int c = 0; c < columns; c++) {
+                columnSums[c] = above[c] + current[c] + below[c];
+            }
+            long base = (long) row * columns;
+            int window = columnSums[0] + (columns > 1 ? columnSums[1] : 0);
+            for (int c = 0; c < columns; c++) {
+                if (current[c] == 0) {
+                    setNibble(base + c, window);
+                }
+                if (c > 0) {
+                    window -= columnSums[c - 1];
+                }
+                if (c + 2 < columns) {
+                    window += columnSums[c + 2];
+                }
+            }
+            byte[] recycled = above;
+            above = current;
+            current = below;
+            below = recycled;
+        }
+    }
+
+    private void readMineRow(int row, byte[] mines) {
+        long base = (long) row * columns;
+        for (int c = 0; c < columns; c++) {
+            mines[c] = (byte) (nibble(base + c) == MINE_NIBBLE ? 1 : 0);
+        }
+    }
+
+    /**
+     * Reveals a cell, cascading through zero cells like {@link Board#reveal(Position)}.
+     * @return the game state after the move
+     */
+    public GameState reveal(Position position) {
+        if (!position.isValid(rows, columns) || gameState.isGameOver()) {
+            return gameState;
+        }
+        long index = (long) position.row() * columns + position.col();
+        if (isRevealed(index)) {
+            return gameState;
+        }
+        setRevealed(index);
+        int value = nibble(index);
+        if (value == MINE_NIBBLE) {
+            gameState = GameState.LOST;
+            return gameState;
+        }
+        hiddenSafeCells--;
+        if (value == 0) {
+            revealAdjacentCells(position.row(), position.col());
+        }
+        if (hiddenSafeCells == 0) {
+            gameState = GameState.WON;
+        }
+        return gameState;
+    }
+
+    /**
+     * Same flood fill as {@link Board}; the queue holds (row, col) pairs as consecutive ints so
+     * it never needs more than int indices, however many cells the board has.
+     */
+    private void revealAdjacentCells(int startRow, int startCol) {
+        IntQueue queue = new IntQueue();
+        queue.add(startRow);
+        queue.add(startCol);
+        while (!queue.isEmpty()) {
+            int row = queue.poll();
+            int col = queue.poll();
+            int lastRow = Math.min(rows - 1, row + 1);
+            int lastCol = Math.min(columns - 1, col + 1);
+            for (int r = Math.max(0, row - 1); r <= lastRow; r++) {
+                for (int c = Math.max(0, col - 1); c <= lastCol; c++) {
+                    long index = (long) r * columns + c;
+                    if (isRevealed(index)) {
+                        continue;
+                    }
+                    int value = nibble(index);
+                    if (value != MINE_NIBBLE) {
+                        setRevealed(index);
+                        hiddenSafeCells--;
+                        if (value == 0) {
+                            queue.add(r);
+                            queue.add(c);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public Cell getCell(Position position) {
+        long index = (long) position.row() * columns + position.col();
+        int value = nibble(index);
+        int bits = value == MINE_NIBBLE ? Cell.MINE : value;
+        if (isRevealed(index)) {
+            bits |= Cell.REVEALED;
+        }
+        return Cell.fromBits(position, bits);
+    }
+
+    public GameState getGameState() {
+        return gameState;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public long getMineCount() {
+        return mineCount;
+    }
+
+    public long getHiddenSafeCells() {
+        return hiddenSafeCells;
+    }
+
+    /**
+     * Writes the header and forces all changed cells to the file.
+     */
+    public void flush() {
+        writeHeader();
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Flushes and closes the file. The mapping itself is released when it is garbage collected.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    private void writeHeader() {
+        MappedByteBuffer header = segments[0];
+        header.putInt(0, MAGIC);
+        header.putInt(4, VERSION);
+        header.putInt(8, rows);
+        header.putInt(12, columns);
+        header.putLong(16, mineCount);
+        header.putLong(24, hiddenSafeCells);
+        header.putInt(32, gameState.ordinal());
+    }
+
+    private int nibble(long index) {
+        int b = getByte(HEADER_BYTES + (index >>> 1));
+        return (index & 1) == 0 ? b & 0x0F : (b >>> 4) & 0x0F;
+    }
+
+    private void setNibble(long index, int value) {
+        long offset = HEADER_BYTES + (index >>> 1);
+        int b = getByte(offset);
+        b = (index & 1) == 0 ? (b & 0xF0) | value : (b & 0x0F) | (value << 4);
+        putByte(offset, (byte) b);
+    }
+
+    private boolean isRevealed(long index) {
+        return (getByte(revealedOffset + (index >>> 3)) & (1 << (index & 7))) != 0;
+    }
+
+    private void setRevealed(long index) {
+        long offset = revealedOffset + (index >>> 3);
+        putByte(offset, (byte) (getByte(offset) | (1 << (index & 7))));
+    }
+
+    private int getByte(long offset) {
+        return segments[(int) (offset >>> SEGMENT_BITS)].get((int) (offset & SEGMENT_MASK));
+    }
+
+    private void putByte(long offset, byte value) {
+        segments[(int) (offset >>> SEGMENT_BITS)].put((int) (offset & SEGMENT_MASK), value);
+    }
+}
@@ -1,10 +1,23 @@
 package com.minesweeper;
 
+import com.minesweeper.server.ServerCommand;
+import com.minesweeper.sim.SimulationCommand;
+
 /**
  * Entry point for the Minesweeper application.
+ * Starts the interactive game, a headless simulation when the first argument is --simulate,
+ * or a game server when it is --serve.
  */
 public class Minesweeper {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--simulate")) {
+            SimulationCommand.run(args, System.out);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--serve")) {
+            ServerCommand.run(args, System.out);
+            return;
+        }
         Game game = new Game();
         game.start();
     }
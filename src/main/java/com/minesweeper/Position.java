@@ -1,16 +1,33 @@
 package com.minesweeper;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
  * Represents an immutable position on the game board.
  */
 public record Position(int row, int col) {
+    // Boards up to this many cells get a cached neighbour table, about 300 KB at the limit
+    private static final int MAX_CACHED_CELLS = 1 << 12;
+    // Tables of recently used shapes; a shape whose slot is taken replaces the table there
+    private static final AtomicReferenceArray<NeighbourTable> NEIGHBOURS = new AtomicReferenceArray<>(8);
+
     /**
      * Validates if the position is within the given bounds.
      * @param size The size of the board
      * @return true if the position is valid
      */
     public boolean isValid(int size) {
-        return row >= 0 && row < size && col >= 0 && col < size;
+        return isValid(size, size);
+    }
+
+    /**
+     * Validates if the position is within the bounds of a rectangular board.
+     * @param rows The number of rows on the board
+     * @param columns The number of columns on the board
+     * @return true if the position is valid
+     */
+    public boolean isValid(int rows, int columns) {
+        return row >= 0 && row < rows && col >= 0 && col < columns;
     }
 
     /**
@@ -19,13 +36,55 @@ public record Position(int row, int col) {
      * @return Array of valid adjacent positions
      */
     public Position[] getAdjacentPositions(int size) {
+        return getAdjacentPositions(size, size);
+    }
+
+    /**
+     * Returns all valid adjacent positions (including diagonals) on a rectangular board.
+     * For positions on boards of up to {@value #MAX_CACHED_CELLS} cells, the neighbours are
+     * computed once per board shape and shared; only the returned array is new.
+     * @param rows The number of rows on the board
+     * @param columns The number of columns on the board
+     * @return Array of valid adjacent positions
+     */
+    public Position[] getAdjacentPositions(int rows, int columns) {
+        if (isValid(rows, columns) && (long) rows * columns <= MAX_CACHED_CELLS) {
+            return neighbourTable(rows, columns).neighbours()[row * columns + col].clone();
+        }
+        return computeAdjacentPositions(rows, columns);
+    }
+
+    private static NeighbourTable neighbourTable(int rows, int columns) {
+        int slot = (rows * 31 + columns) & (NEIGHBOURS.length() - 1);
+        NeighbourTable table = NEIGHBOURS.get(slot);
+        if (table == null || table.rows() != rows || table.columns() != columns) {
+            // One instance per cell, shared by the lists of all its neighbours
+            Position[] positions = new Position[rows * columns];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = new Position(i / columns, i % columns);
+            }
+            Position[][] neighbours = new Position[positions.length][];
+            for (int i = 0; i < positions.length; i++) {
+                Position[] adjacent = positions[i].computeAdjacentPositions(rows, columns);
+                for (int k = 0; k < adjacent.length; k++) {
+                    adjacent[k] = positions[adjacent[k].row() * columns + adjacent[k].col()];
+                }
+                neighbours[i] = adjacent;
+            }
+            table = new NeighbourTable(rows, columns, neighbours);
+            NEIGHBOURS.set(slot, table);
+        }
+        return table;
+    }
+
+    private Position[] computeAdjacentPositions(int rows, int columns) {
         Position[] allPositions = new Position[8];
         int index = 0;
         for (int dr = -1; dr <= 1; dr++) {
             for (int dc = -1; dc <= 1; dc++) {
                 if (dr == 0 && dc == 0) continue;
                 Position newPos = new Position(row + dr, col + dc);
-                if (newPos.isValid(size)) {
+                if (newPos.isValid(rows, columns)) {
                     allPositions[index++] = newPos;
                 }
             }
@@ -34,4 +93,85 @@ public record Position(int row, int col) {
         System.arraycopy(allPositions, 0, validPositions, 0, index);
         return validPositions;
     }
+
+    /**
+     * Returns the letter label of a row: A-Z, then AA-AZ, BA-BZ and so on.
+     * @param row The zero-based row index
+     * @return The row label
+     */
+    public static String rowLabel(int row) {
+        if (row < 0) {
+            throw new IllegalArgumentException("Row must not be negative");
+        }
+        char[] letters = new char[7];
+        int start = letters.length;
+        long remaining = row + 1L;
+        while (remaining > 0) {
+            remaining--;
+            letters[--start] = (char) ('A' + remaining % 26);
+            remaining /= 26;
+        }
+        return new String(letters, start, letters.length - start);
+    }
+
+    /**
+     * Parses a row label produced by {@link #rowLabel(int)}, ignoring case.
+     * @param label The row label
+     * @return The zero-based row index
+     */
+    public static int parseRowLabel(String label) {
+        if (label.isEmpty()) {
+            throw new IllegalArgumentException("Row label must not be empty");
+        }
+        long row = 0;
+        for (int i = 0; i < label.length(); i++) {
+            char letter = Character.toUpperCase(label.charAt(i));
+            if (letter < 'A' || letter > 'Z') {
+                throw new IllegalArgumentException("Row label must only contain letters");
+            }
+            row = row * 26 + (letter - 'A' + 1);
+            if (row > Integer.MAX_VALUE + 1L) {
+                throw new IllegalArgumentException("Row label out of range");
+            }
+        }
+        return (int) (row - 1);
+    }
+
+    /**
+     * Parses a position such as "A1" or "AB12": row letters followed by a 1-based column number.
+     * @throws IllegalArgumentException if the input is malformed or off a board of the given size
+     */
+    public static Position parse(String input, int rows, int columns) {
+        int split = 0;
+        while (split < input.length() && Character.isLetter(input.charAt(split))) {
+            split++;
+        }
+        int row = parseRowLabel(input.substring(0, split));
+        // Plain ASCII digits without a leading zero, as Game.INPUT_PATTERN allows; parseInt alone
+        // would also take a sign, leading zeros and other scripts' digits
+        if (split == input.length() || input.charAt(split) == '0') {
+            throw new IllegalArgumentException("Invalid column number");
+        }
+        for (int i = split; i < input.length(); i++) {
+            if (input.charAt(i) < '0' || input.charAt(i) > '9') {
+                throw new IllegalArgumentException("Invalid column number");
+            }
+        }
+        int col;
+        try {
+            col = Integer.parseInt(input.substring(split)) - 1;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid column number");
+        }
+
+        if (row < 0 || row >= rows || col < 0 || col >= columns) {
+            throw new IllegalArgumentException("Position out of bounds");
+        }
+
+        return new Position(row, col);
+    }
+
+    // Neighbours of every cell of one board shape, by linear index; never modified once built
+    private record NeighbourTable(int rows, int columns, Position[][] neighbours) {
+    }
 }
@@ -0,0 +1,150 @@
+package com.minesweeper;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Maps session IDs to the current {@link Board} of each game.
+ * Every session has its own atomic reference, updated by compare-and-set, so moves in
+ * different sessions never wait for each other and a move in one session never blocks
+ * readers. Boards are immutable; a move publishes a new board.
+ * <p>
+ * Several players may move on one session at once. A reveal that loses the race is not
+ * recomputed: the cells it uncovered are merged into the newer board (see
+ * {@link #reveal(String, Position)}), so disjoint reveals never conflict and a retry costs
+ * only the cells the move changed.
+ * <p>
+ * Thread-safe.
+ */
+public class SessionRegistry {
+    private final Map<String, AtomicReference<Board>> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a board under a new random session ID.
+     * @return the session ID
+     */
+    public String add(Board board) {
+        while (true) {
+            String id = Long.toHexString(ThreadLocalRandom.current().nextLong() | Long.MIN_VALUE);
+            if (sessions.putIfAbsent(id, new AtomicReference<>(board)) == null) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Registers a board under a known session ID, replacing any board it had, for example when
+     * restoring saved games.
+     */
+    public void put(String id, Board board) {
+        sessions.put(id, new AtomicReference<>(board));
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no such session
+     */
+    public Board get(String id) {
+        return session(id).get();
+    }
+
+    /**
+     * Applies a move to the session's current board and publishes the result. If another
+     * thread publishes first, the move is applied again to the newer board, so the move must
+     * be free of side effects.
+     * @return the board published by this call
+     * @throws IllegalArgumentException if there is no such session
+     */
+    public Board update(String id, UnaryOperator<Board> move) {
+        AtomicReference<Board> session = session(id);
+        while (true) {
+            Board current = session.get();
+            Board next = move.apply(current);
+            if (next == current || session.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Reveals a cell and publishes the result. When another move was published in between,
+     * the cells this reveal uncovered are merged into the newer board instead of repeating
+     * the reveal and its cascade.
+     * @return the board published by this call, or the current board if the move changed nothing
+     * @throws IllegalArgumentException if there is no such session
+     */
+    public Board reveal(String id, Position position) {
+        AtomicReference<Board> session = session(id);
+        Board base = session.get();
+        Board next = base.reveal(position);
+        while (next != base && !session.compareAndSet(base, next)) {
+            base = session.get();
+            next = next.rebase(base);
+        }
+        return next;
+    }
+
+    /**
+     * Reveals a cell like {@link #reveal(String, Position)}, and calls the given action with the
+     * board it publishes before any other reveal of the session through this method can
+     * publish, so the action sees the reveals of a session in the order they were applied, for
+     * example to journal them. The action must be quick; it is not called if the move changed
+     * nothing.
+     * @return the board published by this call, or the current board if the move changed nothing
+     * @throws IllegalArgumentException if there is no such session
+     */
+    public Board reveal(String id, Position position, Consumer<Board> onPublish) {
+        AtomicReference<Board> session = session(id);
+        Board base = session.get();
+        Board next = base.reveal(position);
+        while (next != base) {
+            // Only publishing and the action are serialized; the reveal and merges are not
+            synchronized (session) {
+                if (session.compareAndSet(base, next)) {
+                    onPublish.accept(next);
+                    return next;
+                }
+            }
+            base = session.get();
+            next = next.rebase(base);
+        }
+        return next;
+    }
+
+    /**
+     * @return whether the session existed
+     */
+    public boolean remove(String id) {
+        return sessions.remove(id) != null;
+    }
+
+    public boolean contains(String id) {
+        return sessions.containsKey(id);
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Returns the current board of every session. Each board is consistent, but the map is not
+     * an atomic view across sessions.
+     */
+    public Map<String, Board> snapshot() {
+        Map<String, Board> boards = new HashMap<>();
+        sessions.forEach((id, session) -> boards.put(id, session.get()));
+        return boards;
+    }
+
+    private AtomicReference<Board> session(String id) {
+        AtomicReference<Board> session = sessions.get(id);
+        if (session == null) {
+            throw new IllegalArgumentException("Unknown session " + id);
+        }
+        return session;
+    }
+}
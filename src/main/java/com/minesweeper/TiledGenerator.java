@@ -0,0 +1,244 @@
+package com.minesweeper;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Generates the cells of large boards in parallel on a fork-join pool.
+ * <p>
+ * The board is cut into bands of whole rows of about {@value #BAND_CELLS} cells, so the bands
+ * depend only on the board's width. The mines are split between the bands by recursive halving:
+ * the number that falls in the first half of a range of bands is drawn from the hypergeometric
+ * distribution of picking the range's mines among its allowed cells, which keeps the total
+ * exact and the layout a uniformly random set of cells. Each band then places its quota with
+ * Floyd's algorithm, as in {@link Board#placeMines}. Every split and every band draws from its
+ * own generator, seeded from the board seed and its band range, so a seed always gives the
+ * same board whatever the pool's parallelism or scheduling. It is not the board the serial
+ * placement would give for that seed.
+ * <p>
+ * Once all mines are placed, each band computes its adjacent counts with
+ * {@link AdjacencyCounter}, reading one halo row from each neighbouring band.
+ */
+final class TiledGenerator {
+    /**
+     * Boards with at least this many cells are generated in bands; smaller ones are not worth
+     * the task overhead.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 20;
+    private static final int BAND_CELLS = 1 << 16;
+    private static final double[] SMALL_LOG_FACTORIALS = new double[256];
+
+    static {
+        for (int n = 2; n < SMALL_LOG_FACTORIALS.length; n++) {
+            SMALL_LOG_FACTORIALS[n] = SMALL_LOG_FACTORIALS[n - 1] + Math.log(n);
+        }
+    }
+
+    private TiledGenerator() {
+    }
+
+    /**
+     * Generates packed cells with the mines placed and counted, on the common pool.
+     * @param excluded Linear indices of the cells to keep clear, in ascending order
+     */
+    static byte[] generate(int rows, int columns, int mineCount, long seed, int[] excluded) {
+        return generate(ForkJoinPool.commonPool(), BAND_CELLS, rows, columns, mineCount, seed, excluded);
+    }
+
+    static byte[] generate(ForkJoinPool pool, int bandCells, int rows, int columns, int mineCount, long seed,
+            int[] excluded) {
+        Bands bands = new Bands(new byte[rows * columns], rows, columns, Math.max(1, bandCells / columns),
+            seed, excluded);
+        BoardEvents.MinePlacement placement = new BoardEvents.MinePlacement();
+        placement.begin();
+        pool.invoke(bands.new Place(0, bands.count, mineCount));
+        if (placement.shouldCommit()) {
+            placement.cells = bands.cells.length;
+            placement.mineCount = mineCount;
+            placement.commit();
+        }
+        BoardEvents.AdjacencyCount counting = new BoardEvents.AdjacencyCount();
+        counting.begin();
+        pool.invoke(bands.new Count(0, bands.count));
+        if (counting.shouldCommit()) {
+            counting.rows = rows;
+            counting.columns = columns;
+            counting.commit();
+        }
+        return bands.cells;
+    }
+
+    /**
+     * Draws the number of successes in {@code draws} draws without replacement from a
+     * population holding {@code successes} successes. Inverts the distribution starting at
+     * its mode and stepping outwards on both sides, so the expected number of steps grows
+     * with the standard deviation rather than the population. The mode's probability comes
+     * from log-factorials and its neighbours' from the ratio of consecutive probabilities.
+     */
+    static long sampleHypergeometric(long population, long successes, long draws, SplittableRandom random) {
+        long failures = population - successes;
+        long low = Math.max(0, draws - failures);
+        long high = Math.min(draws, successes);
+        long mode = Math.max(low, Math.min(high, (draws + 1) * (successes + 1) / (population + 2)));
+        double modeProbability = Math.exp(logBinomial(successes, mode) + logBinomial(failures, draws - mode)
+            - logBinomial(population, draws));
+        double u = random.nextDouble() - modeProbability;
+        if (u < 0) {
+            return mode;
+        }
+        long up = mode;
+        long down = mode;
+        double upProbability = modeProbability;
+        double downProbability = modeProbability;
+        while (up < high || down > low) {
+            if (up < high) {
+                upProbability *= (double) (successes - up) * (draws - up) / ((double) (up + 1) * (failures - draws + up + 1));
+                up++;
+                u -= upProbability;
+                if (u < 0) {
+                    return up;
+                }
+            }
+            if (down > low) {
+                downProbability *= (double) down * (failures - draws + down) / ((double) (successes - down + 1) * (draws - down + 1));
+                down--;
+                u -= downProbability;
+                if (u < 0) {
+                    return down;
+                }
+            }
+        }
+        // Only rounding can leave probability unassigned; it belongs to the mode
+        return mode;
+    }
+
+    private static double logBinomial(long n, long k) {
+        return logFactorial(n) - logFactorial(k) - logFactorial(n - k);
+    }
+
+    // Stirling's series past the table; its error is below 1e-15 from n = 256 on
+    static double logFactorial(long n) {
+        if (n < SMALL_LOG_FACTORIALS.length) {
+            return SMALL_LOG_FACTORIALS[(int) n];
+        }
+        double x = n;
+        double inverse = 1.0 / x;
+        double inverseSquared = inverse * inverse;
+        return x * Math.log(x) - x + 0.5 * Math.log(2 * Math.PI * x)
+            + inverse * (1.0 / 12 - inverseSquared * (1.0 / 360 - inverseSquared / 1260));
+    }
+
+    // SplitMix64 finalizer, as in InfiniteBoard: spreads neighbouring band ranges over unrelated seeds
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Bands {
+        private final byte[] cells;
+        private final int rows;
+        private final int columns;
+        private final int bandRows;
+        private final int count;
+        private final long seed;
+        private final int[] excluded;
+        // allowedBefore[b]: cells outside the excluded ones in the bands before band b
+        private final long[] allowedBefore;
+
+        private Bands(byte[] cells, int rows, int columns, int bandRows, long seed, int[] excluded) {
+            this.cells = cells;
+            this.rows = rows;
+            this.columns = columns;
+            this.bandRows = bandRows;
+            this.count = (rows + bandRows - 1) / bandRows;
+            this.seed = seed;
+            this.excluded = excluded;
+            this.allowedBefore = new long[count + 1];
+            for (int b = 0; b < count; b++) {
+                allowedBefore[b + 1] = allowedBefore[b] + (long) (firstRow(b + 1) - firstRow(b)) * columns
+                    - (excludedBefore(firstRow(b + 1) * columns) - excludedBefore(firstRow(b) * columns));
+            }
+        }
+
+        private int firstRow(int band) {
+            return Math.min(rows, band * bandRows);
+        }
+
+        private int excludedBefore(int index) {
+            int position = Arrays.binarySearch(excluded, index);
+            return position >= 0 ? position : -position - 1;
+        }
+
+        private SplittableRandom random(int firstBand, int endBand) {
+            return new SplittableRandom(mix(seed + mix(((long) firstBand << 32) | endBand)));
+        }
+
+        private void placeBand(int band, int mineCount) {
+            int start = firstRow(band) * columns;
+            int end = firstRow(band + 1) * columns;
+            int from = excludedBefore(start);
+            int[] local = new int[excludedBefore(end) - from];
+            for (int i = 0; i < local.length; i++) {
+                local[i] = excluded[from + i] - start;
+            }
+            int allowed = end - start - local.length;
+            SplittableRandom random = random(band, band + 1);
+            for (int j = allowed - mineCount; j < allowed; j++) {
+                int pick = start + Board.skipExcluded(random.nextInt(j + 1), local);
+                if ((cells[pick] & Cell.MINE) != 0) {
+                    pick = start + Board.skipExcluded(j, local);
+                }
+                cells[pick] |= Cell.MINE;
+            }
+        }
+
+        @SuppressWarnings("serial") // Fork-join tasks are never serialized
+        private final class Place extends RecursiveAction {
+            private final int firstBand;
+            private final int endBand;
+            private final int mineCount;
+
+            private Place(int firstBand, int endBand, int mineCount) {
+                this.firstBand = firstBand;
+                this.endBand = endBand;
+                this.mineCount = mineCount;
+            }
+
+            @Override
+            protected void compute() {
+                if (endBand - firstBand == 1) {
+                    placeBand(firstBand, mineCount);
+                    return;
+                }
+                int middle = (firstBand + endBand) >>> 1;
+                long left = sampleHypergeometric(allowedBefore[endBand] - allowedBefore[firstBand],
+                    allowedBefore[middle] - allowedBefore[firstBand], mineCount, random(firstBand, endBand));
+                invokeAll(new Place(firstBand, middle, (int) left), new Place(middle, endBand, mineCount - (int) left));
+            }
+        }
+
+        @SuppressWarnings("serial")
+        private final class Count extends RecursiveAction {
+            private final int firstBand;
+            private final int endBand;
+
+            private Count(int firstBand, int endBand) {
+                this.firstBand = firstBand;
+                this.endBand = endBand;
+            }
+
+            @Override
+            protected void compute() {
+                if (endBand - firstBand == 1) {
+                    AdjacencyCounter.count(cells, rows, columns, firstRow(firstBand), firstRow(endBand));
+                    return;
+                }
+                int middle = (firstBand + endBand) >>> 1;
+                invokeAll(new Count(firstBand, middle), new Count(middle, endBand));
+            }
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * Index of the openings of a mine layout: the regions of zero cells connected through their
+ * eight neighbours, each with its numbered border. Revealing any zero cell uncovers exactly its
+ * region's cells, so a cascade becomes a walk over a precomputed list instead of a flood fill.
+ * <p>
+ * Regions are labelled in two passes. The first visits the cells in row-major order and gives
+ * each zero cell the label of its already visited zero neighbours (west, north-west, north and
+ * north-east), merging labels in a union-find forest when they differ. The second resolves
+ * every label to its root and numbers the regions in order of their first cell. Region cells
+ * are then stored contiguously per region, in row-major order; a numbered cell touching
+ * several regions is listed in each.
+ * <p>
+ * The index depends only on the mine layout, so one instance serves every version of a game.
+ * Immutable.
+ */
+final class ZeroRegions {
+    private static final int NONE = -1;
+
+    // Region of each zero cell, NONE for every other cell
+    private final int[] regionOf;
+    // Cells of region r are cells[offsets[r]] to cells[offsets[r + 1] - 1]
+    private final int[] offsets;
+    private final int[] cells;
+    private final int isolatedNumbers;
+
+    private ZeroRegions(int[] regionOf, int[] offsets, int[] cells, int isolatedNumbers) {
+        this.regionOf = regionOf;
+        this.offsets = offsets;
+        this.cells = cells;
+        this.isolatedNumbers = isolatedNumbers;
+    }
+
+    /**
+     * Builds the index from packed cells with mines and adjacent counts in place.
+     */
+    static ZeroRegions of(byte[] packed, int rows, int columns) {
+        int[] regionOf = new int[packed.length];
+        int regionCount = label(packed, rows, columns, regionOf);
+
+        // Count each region's cells, then fill them in; numbered cells go to every region they touch
+        int[] offsets = new int[regionCount + 1];
+        int[] touching = new int[8];
+        int isolatedNumbers = 0;
+        for (int i = 0; i < packed.length; i++) {
+            int count = regionsAt(packed, rows, columns, regionOf, i, touching);
+            if (count == 0 && (packed[i] & Cell.MINE) == 0) {
+                isolatedNumbers++;
+            }
+            for (int k = 0; k < count; k++) {
+                offsets[touching[k] + 1]++;
+            }
+        }
+        for (int r = 0; r < regionCount; r++) {
+            offsets[r + 1] += offsets[r];
+        }
+        int[] cells = new int[offsets[regionCount]];
+        int[] next = Arrays.copyOf(offsets, regionCount);
+        for (int i = 0; i < packed.length; i++) {
+            int count = regionsAt(packed, rows, columns, regionOf, i, touching);
+            for (int k = 0; k < count; k++) {
+                cells[next[touching[k]]++] = i;
+            }
+        }
+        return new ZeroRegions(regionOf, offsets, cells, isolatedNumbers);
+    }
+
+    /**
+     * Labels the zero cells and fills regionOf.
+     * @return the number of regions
+     */
+    private static int label(byte[] packed, int rows, int columns, int[] regionOf) {
+        int[] parent = new int[64];
+        int labels = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                int i = row * columns + col;
+                if (!isZero(packed[i])) {
+                    regionOf[i] = NONE;
+                    continue;
+                }
+                int label = NONE;
+                if (col > 0) {
+                    label = merge(parent, label, regionOf[i - 1]);
+                }
+                if (row > 0) {
+                    int above = i - columns;
+                    if (col > 0) {
+                        label = merge(parent, label, regionOf[above - 1]);
+                    }
+                    label = merge(parent, label, regionOf[above]);
+                    if (col + 1 < columns) {
+                        label = merge(parent, label, regionOf[above + 1]);
+                    }
+                }
+                if (label == NONE) {
+                    if (labels == parent.length) {
+                        parent = Arrays.copyOf(parent, labels * 2);
+                    }
+                    parent[labels] = labels;
+                    label = labels++;
+                }
+                regionOf[i] = label;
+            }
+        }
+
+        // Number the roots in order of first appearance and relabel every cell with its root's number
+        int[] number = new int[labels];
+        Arrays.fill(number, NONE);
+        int regions = 0;
+        for (int i = 0; i < regionOf.length; i++) {
+            if (regionOf[i] != NONE) {
+                int root = find(parent, regionOf[i]);
+                if (number[root] == NONE) {
+                    number[root] = regions++;
+                }
+                regionOf[i] = number[root];
+            }
+        }
+        return regions;
+    }
+
+    // Joins the neighbour's label into the cell's label so far; returns the label to keep
+    private static int merge(int[] parent, int label, int neighbour) {
+        if (neighbour == NONE) {
+            return label;
+        }
+        int root = find(parent, neighbour);
+        if (label == NONE) {
+            return root;
+        }
+        int own = find(parent, label);
+        if (own != root) {
+            parent[Math.max(own, root)] = Math.min(own, root);
+        }
+        return Math.min(own, root);
+    }
+
+    private static int find(int[] parent, int label) {
+        while (parent[label] != label) {
+            // Path halving
+            parent[label] = parent[parent[label]];
+            label = parent[label];
+        }
+        return label;
+    }
+
+    // Writes the distinct regions cell i belongs to into touching and returns how many there are
+    private static int regionsAt(byte[] packed, int rows, int columns, int[] regionOf, int i, int[] touching) {
+        if (regionOf[i] != NONE) {
+            touching[0] = regionOf[i];
+            return 1;
+        }
+        if ((packed[i] & Cell.MINE) != 0) {
+            return 0;
+        }
+        int row = i / columns;
+        int col = i - row * columns;
+        int count = 0;
+        int lastRow = Math.min(rows - 1, row + 1);
+        int lastCol = Math.min(columns - 1, col + 1);
+        for (int r = Math.max(0, row - 1); r <= lastRow; r++) {
+            for (int c = Math.max(0, col - 1); c <= lastCol; c++) {
+                int region = regionOf[r * columns + c];
+                if (region != NONE && !contains(touching, count, region)) {
+                    touching[count++] = region;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int k = 0; k < count; k++) {
+            if (values[k] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZero(byte cell) {
+        return (cell & (Cell.MINE | Cell.ADJACENT_MASK)) == 0;
+    }
+
+    /**
+     * Returns the region of a zero cell.
+     * @throws IllegalArgumentException if the cell is not a zero cell
+     */
+    int regionOf(int index) {
+        int region = regionOf[index];
+        if (region == NONE) {
+            throw new IllegalArgumentException("Cell " + index + " is not a zero cell");
+        }
+        return region;
+    }
+
+    /**
+     * Returns the position in {@link #cell(int)} of the region's first cell.
+     */
+    int start(int region) {
+        return offsets[region];
+    }
+
+    /**
+     * Returns the position in {@link #cell(int)} just past the region's last cell.
+     */
+    int end(int region) {
+        return offsets[region + 1];
+    }
+
+    /**
+     * Returns the linear index of the cell at the given position of the region lists.
+     */
+    int cell(int position) {
+        return cells[position];
+    }
+
+    /**
+     * Returns the number of openings (zero regions).
+     */
+    int openings() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Returns the 3BV of the layout: the minimum number of clicks that clears the board, one
+     * per opening plus one per numbered cell that borders no opening.
+     */
+    int boardValue() {
+        return openings() + isolatedNumbers;
+    }
+}
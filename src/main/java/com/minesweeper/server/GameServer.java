@@ -0,0 +1,303 @@
+package com.minesweeper.server;
+
+import com.minesweeper.Board;
+import com.minesweeper.BoardRenderer;
+import com.minesweeper.Game;
+import com.minesweeper.GameEngine;
+import com.minesweeper.Position;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves games of a {@link GameEngine} over a line-based text protocol on a loopback TCP port.
+ * Every connection runs on its own virtual thread, so thousands of idle players cost little.
+ * <p>
+ * Commands, one per line and case-insensitive:
+ * <ul>
+ *   <li>{@code NEW <size> <mines>} or {@code NEW <rows> <columns> <mines>}: starts a game and
+ *       makes it the connection's current session. Boards are limited to {@value #MAX_SIDE}
+ *       rows and columns and {@value #MAX_CELLS} cells, since every board lives on the heap of
+ *       the shared process;</li>
+ *   <li>{@code JOIN <session>}: makes an existing session current;</li>
+ *   <li>{@code REVEAL <position>} or just {@code <position>}, e.g. {@code B3}: reveals a cell;</li>
+ *   <li>{@code SHOW}: shows the current board;</li>
+ *   <li>{@code MODE FULL} or {@code MODE DELTA}: after a reveal, send the whole board (the
+ *       default) or only the cells changed since the board last sent to the connection, which
+ *       includes other players' moves, as one line of records such as {@code A1=0 A2=1};</li>
+ *   <li>{@code STATS}: shows the engine's {@link com.minesweeper.EngineMetrics}, if enabled;</li>
+ *   <li>{@code QUIT}: closes the connection.</li>
+ * </ul>
+ * Each response starts with {@code OK <session> <state>} followed by the board (or, for a
+ * reveal in delta mode, its changes), or with {@code ERR <message>}, and ends with an empty line.
+ * A session is ended when the last connection that started or joined it disconnects, but not
+ * when the server shuts down, so a journaled engine keeps it across a restart. A session
+ * recovered from the journal is counted from its first JOIN on.
+ */
+public class GameServer implements AutoCloseable {
+    static final int MAX_SIDE = 1024;
+    static final int MAX_CELLS = 1 << 18;
+
+    private final GameEngine engine;
+    private final ServerSocket serverSocket;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    // Connections playing each session; a session leaves the map with its last player
+    private final Map<String, Integer> participants = new ConcurrentHashMap<>();
+    private Thread acceptor;
+    private volatile boolean closing;
+
+    /**
+     * Binds to the given port on the loopback interface; port 0 picks a free one.
+     */
+    public GameServer(GameEngine engine, int port) throws IOException {
+        this.engine = engine;
+        this.serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Starts accepting connections in the background.
+     * @throws IllegalStateException if the server was already started
+     */
+    public synchronized void start() {
+        if (acceptor != null) {
+            throw new IllegalStateException("Server already started");
+        }
+        acceptor = Thread.ofVirtual().name("minesweeper-acceptor").start(this::acceptLoop);
+    }
+
+    /**
+     * Waits until the server is closed.
+     */
+    public void awaitTermination() throws InterruptedException {
+        Thread thread;
+        synchronized (this) {
+            thread = acceptor;
+        }
+        if (thread != null) {
+            thread.join();
+        }
+    }
+
+    private void acceptLoop() {
+        Thread.Builder connectionThreads = Thread.ofVirtual().name("minesweeper-connection-", 0);
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.add(socket);
+                connectionThreads.start(() -> serve(socket));
+            } catch (IOException e) {
+                // Closed by close(); any other accept failure is retried
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        Connection connection = new Connection();
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                boolean open = handle(connection, line.trim(), out);
+                out.flush();
+                if (!open) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            // Client went away; its sessions are cleaned up below
+        } finally {
+            connections.remove(socket);
+            if (!closing) {
+                for (String session : connection.sessions) {
+                    leave(session);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return whether the connection stays open
+     */
+    private boolean handle(Connection connection, String line, Writer out) throws IOException {
+        String[] words = line.split("\\s+");
+        String command = words[0].toUpperCase(Locale.ROOT);
+        try {
+            switch (command) {
+                case "NEW" -> {
+                    int[] numbers = parseNumbers(words);
+                    int rows = numbers[0];
+                    int columns = numbers.length == 2 ? numbers[0] : numbers[1];
+                    checkBoardSize(rows, columns);
+                    String session = engine.newGame(rows, columns, numbers[numbers.length - 1]);
+                    participants.put(session, 1);
+                    connection.sessions.add(session);
+                    connection.session = session;
+                    writeBoard(out, connection, session, engine.getBoard(session));
+                }
+                case "JOIN" -> {
+                    expectArguments(words, 1);
+                    String session = words[1].toLowerCase(Locale.ROOT);
+                    Board board = engine.getBoard(session);
+                    // A recovered session has no count until its first player joins
+                    if (connection.sessions.add(session)) {
+                        participants.merge(session, 1, Integer::sum);
+                    }
+                    connection.session = session;
+                    writeBoard(out, connection, session, board);
+                }
+                case "SHOW" -> writeBoard(out, connection, connection.session, engine.getBoard(currentSession(connection)));
+                case "MODE" -> {
+                    expectArguments(words, 1);
+                    connection.delta = switch (words[1].toUpperCase(Locale.ROOT)) {
+                        case "FULL" -> false;
+                        case "DELTA" -> true;
+                        default -> throw new IllegalArgumentException("Mode must be FULL or DELTA");
+                    };
+                    out.write("OK MODE " + words[1].toUpperCase(Locale.ROOT) + "\n\n");
+                }
+                case "STATS" -> {
+                    if (!engine.getMetrics().isEnabled()) {
+                        throw new IllegalStateException("Metrics are disabled");
+                    }
+                    out.write("OK STATS\n" + engine.getMetrics().snapshot() + "\n\n");
+                }
+                case "QUIT" -> {
+                    out.write("OK BYE\n\n");
+                    return false;
+                }
+                default -> {
+                    String input = command;
+                    if (command.equals("REVEAL")) {
+                        expectArguments(words, 1);
+                        input = words[1].toUpperCase(Locale.ROOT);
+                    } else if (words.length != 1) {
+                        throw new IllegalArgumentException("Unknown command " + words[0]);
+                    }
+                    reveal(connection, input, out);
+                }
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            out.write("ERR " + e.getMessage() + "\n\n");
+        }
+        return true;
+    }
+
+    private void reveal(Connection connection, String input, Writer out) throws IOException {
+        if (!Game.INPUT_PATTERN.matcher(input).matches()) {
+            throw new IllegalArgumentException("Unknown command " + input);
+        }
+        String session = currentSession(connection);
+        Board board = engine.getBoard(session);
+        Position position = Position.parse(input, board.getRows(), board.getColumns());
+        Board revealed = engine.reveal(session, position);
+        if (connection.delta && connection.sent != null) {
+            out.write("OK " + session + " " + revealed.getGameState() + "\n");
+            // Relative to what this client last saw, since other players may have moved since
+            connection.renderer(revealed).renderChanges(connection.sent, revealed, out);
+            connection.sent = revealed;
+            out.write("\n");
+        } else {
+            writeBoard(out, connection, session, revealed);
+        }
+    }
+
+    // Ends the session once no connection plays it any more; the caller holds one of its counts
+    private void leave(String session) {
+        if (participants.computeIfPresent(session, (id, count) -> count == 1 ? null : count - 1) == null) {
+            engine.endGame(session);
+        }
+    }
+
+    private static String currentSession(Connection connection) {
+        if (connection.session == null) {
+            throw new IllegalStateException("No game in progress; use NEW or JOIN");
+        }
+        return connection.session;
+    }
+
+    private static int[] parseNumbers(String[] words) {
+        if (words.length != 3 && words.length != 4) {
+            throw new IllegalArgumentException("Usage: NEW <size> <mines> or NEW <rows> <columns> <mines>");
+        }
+        int[] numbers = new int[words.length - 1];
+        for (int i = 1; i < words.length; i++) {
+            try {
+                numbers[i - 1] = Integer.parseInt(words[i]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number: " + words[i]);
+            }
+        }
+        return numbers;
+    }
+
+    private static void checkBoardSize(int rows, int columns) {
+        if (rows > MAX_SIDE || columns > MAX_SIDE || (long) rows * columns > MAX_CELLS) {
+            throw new IllegalArgumentException("Board can have at most " + MAX_SIDE + " rows, " + MAX_SIDE
+                + " columns and " + MAX_CELLS + " cells");
+        }
+    }
+
+    private static void expectArguments(String[] words, int count) {
+        if (words.length != count + 1) {
+            throw new IllegalArgumentException(words[0].toUpperCase(Locale.ROOT) + " takes " + count + " argument(s)");
+        }
+    }
+
+    private static void writeBoard(Writer out, Connection connection, String session, Board board) throws IOException {
+        out.write("OK " + session + " " + board.getGameState() + "\n");
+        connection.renderer(board).render(board, out);
+        connection.sent = board;
+        out.write("\n");
+    }
+
+    /**
+     * Stops accepting connections and closes the open ones.
+     */
+    @Override
+    public void close() throws IOException {
+        closing = true;
+        serverSocket.close();
+        for (Socket socket : connections) {
+            socket.close();
+        }
+    }
+
+    // Per-connection state, only touched by the connection's own thread
+    private static final class Connection {
+        // Sessions this connection started or joined
+        private final Set<String> sessions = new HashSet<>();
+        private String session;
+        // The last board of the current session sent to the client, in full or as changes
+        private Board sent;
+        private boolean delta;
+        private BoardRenderer renderer;
+
+        // Keeps the renderer while the board shape stays the same
+        private BoardRenderer renderer(Board board) {
+            if (renderer == null || !renderer.fits(board)) {
+                renderer = BoardRenderer.of(board);
+            }
+            return renderer;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.minesweeper.server;
+
+import com.minesweeper.BoardPool;
+import com.minesweeper.EngineMetrics;
+import com.minesweeper.GameEngine;
+import com.minesweeper.GameJournal;
+import com.minesweeper.SessionRegistry;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+
+/**
+ * Command line front end for the game server: {@code --serve [--port=P] [--journal=DIR]}.
+ * With a journal directory, games survive a restart. Metrics are recorded and shown by the
+ * {@code STATS} command. Runs until the process is stopped.
+ */
+public final class ServerCommand {
+    private static final int DEFAULT_PORT = 7878;
+
+    private ServerCommand() {
+    }
+
+    public static void run(String[] args, PrintStream out) throws IOException, InterruptedException {
+        int port = DEFAULT_PORT;
+        Path journalDirectory = null;
+        for (String arg : args) {
+            if (arg.equals("--serve")) {
+                continue;
+            }
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String name = arg.substring(2, equals);
+            String value = arg.substring(equals + 1);
+            switch (name) {
+                case "port" -> port = Integer.parseInt(value);
+                case "journal" -> journalDirectory = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        GameJournal journal = journalDirectory == null ? null : new GameJournal(journalDirectory);
+        try (GameEngine engine = new GameEngine(new SessionRegistry(), new BoardPool(), journal, new EngineMetrics());
+             GameServer server = new GameServer(engine, port)) {
+            server.start();
+            if (journal != null) {
+                out.printf("Recovered %d games from %s%n", engine.getSessionCount(), journalDirectory);
+            }
+            out.printf("Serving Minesweeper on 127.0.0.1:%d%n", server.getPort());
+            server.awaitTermination();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.minesweeper.sim;
+
+import com.minesweeper.Board;
+import com.minesweeper.Position;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Chooses the next cell to reveal in a simulated game.
+ * Implementations may keep per-game state; the simulator creates one instance per game
+ * through a supplier, so implementations need not be thread-safe.
+ */
+public interface MoveStrategy {
+    /**
+     * Returns the position to reveal next on a board that is still being played.
+     * @param board The current board
+     * @param random The game's own random generator; using it keeps runs reproducible
+     * @return A hidden position on the board
+     */
+    Position nextMove(Board board, RandomGenerator random);
+}
@@ -0,0 +1,37 @@
+package com.minesweeper.sim;
+
+import com.minesweeper.Board;
+import com.minesweeper.Position;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Reveals a uniformly random hidden cell. Baseline strategy for the simulator.
+ */
+public class RandomMoveStrategy implements MoveStrategy {
+    private static final int MAX_RANDOM_PROBES = 32;
+
+    @Override
+    public Position nextMove(Board board, RandomGenerator random) {
+        int rows = board.getRows();
+        int columns = board.getColumns();
+        // Random probes find a hidden cell quickly until the board is nearly cleared
+        for (int i = 0; i < MAX_RANDOM_PROBES; i++) {
+            Position pos = new Position(random.nextInt(rows), random.nextInt(columns));
+            if (!board.getCellState(pos).isRevealed()) {
+                return pos;
+            }
+        }
+        int hidden = 0;
+        Position chosen = null;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                Position pos = new Position(r, c);
+                if (!board.getCellState(pos).isRevealed() && random.nextInt(++hidden) == 0) {
+                    chosen = pos;
+                }
+            }
+        }
+        return chosen;
+    }
+}
@@ -0,0 +1,61 @@
+package com.minesweeper.sim;
+
+import com.minesweeper.solver.ProbabilityCalculator;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Command line front end for the simulator:
+ * {@code --simulate --games=N --rows=R --columns=C --mines=M [--seed=S] [--threads=T] [--strategy=NAME]}.
+ */
+public final class SimulationCommand {
+    private static final ProbabilityCalculator CALCULATOR = new ProbabilityCalculator();
+    private static final Map<String, Supplier<? extends MoveStrategy>> STRATEGIES = Map.of(
+        "random", RandomMoveStrategy::new,
+        "solver", SolverMoveStrategy::new,
+        "probability", () -> new SolverMoveStrategy(CALCULATOR));
+
+    private SimulationCommand() {
+    }
+
+    public static void run(String[] args, PrintStream out) {
+        long games = 100_000;
+        int rows = 9;
+        int columns = 9;
+        int mines = 10;
+        long seed = System.nanoTime();
+        int threads = Runtime.getRuntime().availableProcessors();
+        String strategyName = "random";
+        for (String arg : args) {
+            if (arg.equals("--simulate")) {
+                continue;
+            }
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String name = arg.substring(2, equals);
+            String value = arg.substring(equals + 1);
+            switch (name) {
+                case "games" -> games = Long.parseLong(value);
+                case "rows" -> rows = Integer.parseInt(value);
+                case "columns" -> columns = Integer.parseInt(value);
+                case "mines" -> mines = Integer.parseInt(value);
+                case "seed" -> seed = Long.parseLong(value);
+                case "threads" -> threads = Integer.parseInt(value);
+                case "strategy" -> strategyName = value;
+                default -> throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        Supplier<? extends MoveStrategy> strategy = STRATEGIES.get(strategyName);
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unknown strategy " + strategyName + ", expected one of " + STRATEGIES.keySet());
+        }
+        Simulator simulator = new Simulator(rows, columns, mines, strategy, threads);
+        out.printf("Simulating %d games on %dx%d with %d mines (seed %d, %d threads, %s strategy)%n",
+            games, rows, columns, mines, seed, threads, strategyName);
+        out.println(simulator.run(games, seed));
+    }
+}
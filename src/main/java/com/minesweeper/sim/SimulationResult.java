@@ -0,0 +1,24 @@
+package com.minesweeper.sim;
+
+/**
+ * Aggregated outcome of a simulation run.
+ */
+public record SimulationResult(long games, long wins, long losses, long moves, long elapsedNanos) {
+    public double winRate() {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+
+    public double movesPerGame() {
+        return games == 0 ? 0 : (double) moves / games;
+    }
+
+    public double gamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("games=%d wins=%d losses=%d winRate=%.4f movesPerGame=%.2f gamesPerSecond=%.0f",
+            games, wins, losses, winRate(), movesPerGame(), gamesPerSecond());
+    }
+}
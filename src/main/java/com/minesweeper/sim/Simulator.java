@@ -0,0 +1,113 @@
+package com.minesweeper.sim;
+
+import com.minesweeper.Board;
+import com.minesweeper.GameState;
+import com.minesweeper.Position;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Plays many headless games in parallel on a fork-join pool.
+ * Game i draws its board and moves from a generator seeded with (seed, i), so a run gives the
+ * same result whatever the parallelism or the way the work is split.
+ */
+public class Simulator {
+    // Games played sequentially by one fork-join task before it stops splitting
+    private static final long GAMES_PER_TASK = 256;
+
+    private final int rows;
+    private final int columns;
+    private final int mineCount;
+    private final Supplier<? extends MoveStrategy> strategy;
+    private final int parallelism;
+
+    public Simulator(int rows, int columns, int mineCount, Supplier<? extends MoveStrategy> strategy) {
+        this(rows, columns, mineCount, strategy, Runtime.getRuntime().availableProcessors());
+    }
+
+    public Simulator(int rows, int columns, int mineCount, Supplier<? extends MoveStrategy> strategy,
+                     int parallelism) {
+        // Fail fast on an invalid configuration rather than inside a worker
+        new Board.Builder(rows, columns).setMineCount(mineCount).setSeed(0).build();
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.mineCount = mineCount;
+        this.strategy = strategy;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Plays the given number of games.
+     */
+    public SimulationResult run(long games, long seed) {
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            Tally tally = pool.invoke(new GamesTask(seed, 0, games));
+            return new SimulationResult(games, tally.wins, games - tally.wins, tally.moves,
+                System.nanoTime() - start);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void playGame(long seed, long gameIndex, Tally tally) {
+        SplittableRandom random = new SplittableRandom(seed ^ (gameIndex * 0x9E3779B97F4A7C15L));
+        Board board = new Board.Builder(rows, columns)
+            .setMineCount(mineCount)
+            .setRandom(random)
+            .build();
+        MoveStrategy player = strategy.get();
+        while (board.getGameState() == GameState.PLAYING) {
+            Position move = player.nextMove(board, random);
+            board = board.reveal(move);
+            tally.moves++;
+        }
+        if (board.getGameState() == GameState.WON) {
+            tally.wins++;
+        }
+    }
+
+    private static final class Tally {
+        private long wins;
+        private long moves;
+    }
+
+    @SuppressWarnings("serial") // Fork-join tasks are never serialized
+    private final class GamesTask extends RecursiveTask<Tally> {
+        private final long seed;
+        private final long from;
+        private final long to;
+
+        private GamesTask(long seed, long from, long to) {
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                Tally tally = new Tally();
+                for (long i = from; i < to; i++) {
+                    playGame(seed, i, tally);
+                }
+                return tally;
+            }
+            long middle = (from + to) >>> 1;
+            GamesTask left = new GamesTask(seed, from, middle);
+            left.fork();
+            Tally right = new GamesTask(seed, middle, to).compute();
+            Tally tally = left.join();
+            tally.wins += right.wins;
+            tally.moves += right.moves;
+            return tally;
+        }
+    }
+}
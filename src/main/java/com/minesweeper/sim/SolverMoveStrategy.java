@@ -0,0 +1,60 @@
+package com.minesweeper.sim;
+
+import com.minesweeper.Board;
+import com.minesweeper.Position;
+import com.minesweeper.solver.ConstraintSolver;
+import com.minesweeper.solver.ProbabilityCalculator;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Plays provably safe cells found by {@link ConstraintSolver}. When the solver is stuck it
+ * guesses the cell least likely to be a mine if it has a {@link ProbabilityCalculator}, and a
+ * random cell not known to be a mine otherwise.
+ */
+public class SolverMoveStrategy implements MoveStrategy {
+    private final ProbabilityCalculator calculator;
+    private ConstraintSolver solver;
+    private Position lastMove;
+
+    public SolverMoveStrategy() {
+        this(null);
+    }
+
+    /**
+     * @param calculator Calculator used to pick guesses; may be shared between games
+     */
+    public SolverMoveStrategy(ProbabilityCalculator calculator) {
+        this.calculator = calculator;
+    }
+
+    @Override
+    public Position nextMove(Board board, RandomGenerator random) {
+        if (solver == null) {
+            solver = new ConstraintSolver(board.getRows(), board.getColumns());
+        } else {
+            solver.update(board, lastMove);
+        }
+        List<Position> safeCells = solver.getSafeCells();
+        lastMove = safeCells.isEmpty() ? guess(board, random) : safeCells.get(0);
+        return lastMove;
+    }
+
+    private Position guess(Board board, RandomGenerator random) {
+        if (calculator != null) {
+            return calculator.compute(solver, board.getMineCount()).getSafestCell();
+        }
+        int hidden = 0;
+        Position chosen = null;
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getColumns(); c++) {
+                Position pos = new Position(r, c);
+                if (!solver.isRevealed(pos) && !solver.isKnownMine(pos) && random.nextInt(++hidden) == 0) {
+                    chosen = pos;
+                }
+            }
+        }
+        return chosen;
+    }
+}
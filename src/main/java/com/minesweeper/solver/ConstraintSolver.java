@@ -0,0 +1,309 @@
+package com.minesweeper.solver;
+
+import com.minesweeper.Board;
+import com.minesweeper.IntQueue;
+import com.minesweeper.Position;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Deterministic Minesweeper solver working only from what a player can see.
+ * It keeps its own copy of the revealed numbers and applies two rules to each numbered cell:
+ * <ul>
+ *   <li>single cell: if the number equals the known mines around it, every other hidden
+ *       neighbour is safe; if it equals known mines plus hidden neighbours, they are all mines;</li>
+ *   <li>pair: for two numbered cells A and B within two cells of each other, if B's remaining
+ *       mines minus A's equal the hidden cells only B sees, those are mines and the cells only
+ *       A sees are safe; if A's hidden cells are a subset of B's and both need the same number of
+ *       mines, the cells only B sees are safe.</li>
+ * </ul>
+ * After a move only the cells it changed and the numbered cells around them and around each
+ * new deduction are rechecked, so the work per move tracks the change, not the board. Cells
+ * are queued as primitive indices and neighbours are listed into reused buffers, so the rules
+ * allocate nothing per cell.
+ * <p>
+ * Not thread-safe; use one solver per game.
+ */
+public class ConstraintSolver {
+    private static final byte HIDDEN = -1;
+
+    private final int rows;
+    private final int columns;
+    // Revealed number per cell, or HIDDEN
+    private final byte[] numbers;
+    private final BitSet mines = new BitSet();
+    private final BitSet safe = new BitSet();
+    private final IntQueue worklist = new IntQueue();
+    private final BitSet queued = new BitSet();
+    // Scratch buffers of up to eight neighbour indices; the rules never nest their use
+    private final int[] neighbours = new int[8];
+    private final int[] unknownA = new int[8];
+    private final int[] unknownB = new int[8];
+    private final int[] onlyA = new int[8];
+    private final int[] onlyB = new int[8];
+
+    public ConstraintSolver(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.numbers = new byte[rows * columns];
+        Arrays.fill(numbers, HIDDEN);
+    }
+
+    /**
+     * Scans the whole board, for example to give hints on a game already in progress.
+     */
+    public void update(Board board) {
+        for (int index = 0; index < numbers.length; index++) {
+            if (learn(board, index)) {
+                enqueueAround(index);
+            }
+        }
+        propagate();
+    }
+
+    /**
+     * Takes in the cells uncovered by the move that produced the board, as listed by
+     * {@link Board#getChangedCells()}, and runs the rules on the affected part of the frontier.
+     * This covers cascades, chords and {@link Board#revealAll} moves; the given position is
+     * checked as well, in case the board came from elsewhere.
+     */
+    public void update(Board board, Position lastMove) {
+        int start = lastMove.row() * columns + lastMove.col();
+        if (learn(board, start)) {
+            enqueueAround(start);
+        }
+        for (int index : board.getChangedCells()) {
+            if (learn(board, index)) {
+                enqueueAround(index);
+            }
+        }
+        propagate();
+    }
+
+    private boolean learn(Board board, int index) {
+        if (numbers[index] != HIDDEN) {
+            return false;
+        }
+        char display = board.getCellState(position(index)).getDisplayChar();
+        if (display < '0' || display > '8') {
+            return false;
+        }
+        numbers[index] = (byte) (display - '0');
+        safe.clear(index);
+        return true;
+    }
+
+    private void propagate() {
+        while (!worklist.isEmpty()) {
+            int index = worklist.poll();
+            queued.clear(index);
+            applySingleCellRule(index);
+            applyPairRule(index);
+        }
+    }
+
+    private void applySingleCellRule(int index) {
+        int unknown = unknownNeighbours(index, unknownA);
+        if (unknown == 0) {
+            return;
+        }
+        int remaining = remainingMines(index);
+        if (remaining == 0) {
+            markAll(unknownA, unknown, false);
+        } else if (remaining == unknown) {
+            markAll(unknownA, unknown, true);
+        }
+    }
+
+    private void applyPairRule(int index) {
+        int countA = unknownNeighbours(index, unknownA);
+        if (countA == 0) {
+            return;
+        }
+        int remainingA = remainingMines(index);
+        int row = index / columns;
+        int col = index % columns;
+        for (int r = Math.max(0, row - 2); r <= Math.min(rows - 1, row + 2); r++) {
+            for (int c = Math.max(0, col - 2); c <= Math.min(columns - 1, col + 2); c++) {
+                int other = r * columns + c;
+                if (other == index || numbers[other] == HIDDEN) {
+                    continue;
+                }
+                // Earlier pairs may have marked some of A's cells, so list them afresh
+                countA = unknownNeighbours(index, unknownA);
+                if (countA == 0) {
+                    return;
+                }
+                remainingA = remainingMines(index);
+                int countB = unknownNeighbours(other, unknownB);
+                int countOnlyB = difference(unknownB, countB, unknownA, countA, onlyB);
+                int countOnlyA = difference(unknownA, countA, unknownB, countB, onlyA);
+                int extra = remainingMines(other) - remainingA;
+                if (countOnlyB > 0 && extra == countOnlyB) {
+                    markAll(onlyB, countOnlyB, true);
+                    markAll(onlyA, countOnlyA, false);
+                } else if (countOnlyA == 0 && countOnlyB > 0 && extra == 0) {
+                    markAll(onlyB, countOnlyB, false);
+                }
+            }
+        }
+    }
+
+    private void markAll(int[] cells, int count, boolean mine) {
+        for (int i = 0; i < count; i++) {
+            int cell = cells[i];
+            if (mines.get(cell) || safe.get(cell)) {
+                continue;
+            }
+            (mine ? mines : safe).set(cell);
+            enqueueAround(cell);
+        }
+    }
+
+    private void enqueueAround(int index) {
+        enqueue(index);
+        int count = neighbours(index, neighbours);
+        for (int i = 0; i < count; i++) {
+            enqueue(neighbours[i]);
+        }
+    }
+
+    private void enqueue(int index) {
+        if (numbers[index] != HIDDEN && !queued.get(index)) {
+            queued.set(index);
+            worklist.add(index);
+        }
+    }
+
+    /**
+     * Lists the hidden neighbours not yet known to be a mine or safe into the given buffer.
+     * @return how many there are
+     */
+    private int unknownNeighbours(int index, int[] into) {
+        int found = neighbours(index, into);
+        int count = 0;
+        for (int i = 0; i < found; i++) {
+            int neighbour = into[i];
+            if (numbers[neighbour] == HIDDEN && !mines.get(neighbour) && !safe.get(neighbour)) {
+                into[count++] = neighbour;
+            }
+        }
+        return count;
+    }
+
+    private int remainingMines(int index) {
+        int remaining = numbers[index];
+        int count = neighbours(index, neighbours);
+        for (int i = 0; i < count; i++) {
+            if (mines.get(neighbours[i])) {
+                remaining--;
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Writes the first count cells that are not among the excluded ones into result.
+     * @return how many were written
+     */
+    private static int difference(int[] cells, int count, int[] excluded, int excludedCount, int[] result) {
+        int written = 0;
+        outer:
+        for (int i = 0; i < count; i++) {
+            for (int j = 0; j < excludedCount; j++) {
+                if (cells[i] == excluded[j]) {
+                    continue outer;
+                }
+            }
+            result[written++] = cells[i];
+        }
+        return written;
+    }
+
+    /**
+     * Lists the indices of the cells around the given one into the buffer.
+     * @return how many there are, up to eight
+     */
+    private int neighbours(int index, int[] into) {
+        int row = index / columns;
+        int col = index % columns;
+        int count = 0;
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(columns - 1, col + 1); c++) {
+                if (r != row || c != col) {
+                    into[count++] = r * columns + c;
+                }
+            }
+        }
+        return count;
+    }
+
+    private Position position(int index) {
+        return new Position(index / columns, index % columns);
+    }
+
+    private List<Position> positions(BitSet cells) {
+        List<Position> result = new ArrayList<>(cells.cardinality());
+        for (int i = cells.nextSetBit(0); i >= 0; i = cells.nextSetBit(i + 1)) {
+            result.add(position(i));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the hidden cells proven to be safe, in row-major order.
+     */
+    public List<Position> getSafeCells() {
+        return positions(safe);
+    }
+
+    /**
+     * Returns the cells proven to be mines, in row-major order.
+     */
+    public List<Position> getMines() {
+        return positions(mines);
+    }
+
+    public boolean isKnownMine(Position position) {
+        return mines.get(position.row() * columns + position.col());
+    }
+
+    public boolean isKnownSafe(Position position) {
+        return safe.get(position.row() * columns + position.col());
+    }
+
+    public boolean isRevealed(Position position) {
+        return numbers[position.row() * columns + position.col()] != HIDDEN;
+    }
+
+    /**
+     * Returns the revealed number at a position, or -1 if the solver has not seen it revealed.
+     */
+    public int getNumber(Position position) {
+        return numbers[position.row() * columns + position.col()];
+    }
+
+    // Index-based views for the probability calculator
+    int numberAt(int index) {
+        return numbers[index];
+    }
+
+    boolean isKnownMine(int index) {
+        return mines.get(index);
+    }
+
+    boolean isKnownSafe(int index) {
+        return safe.get(index);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+}
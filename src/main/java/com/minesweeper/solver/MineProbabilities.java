@@ -0,0 +1,57 @@
+package com.minesweeper.solver;
+
+import com.minesweeper.Position;
+
+/**
+ * Per-cell mine probabilities for the hidden cells of a board.
+ * Revealed cells and cells proven safe have probability 0, proven mines 1.
+ */
+public class MineProbabilities {
+    private final int rows;
+    private final int columns;
+    private final double[] probabilities;
+    private final boolean[] hidden;
+    private final boolean exact;
+
+    MineProbabilities(int rows, int columns, double[] probabilities, boolean[] hidden, boolean exact) {
+        this.rows = rows;
+        this.columns = columns;
+        this.probabilities = probabilities;
+        this.hidden = hidden;
+        this.exact = exact;
+    }
+
+    public double get(Position position) {
+        return probabilities[position.row() * columns + position.col()];
+    }
+
+    /**
+     * Returns the hidden cell least likely to be a mine, preferring the first in row-major
+     * order on ties, or null if no cell is hidden.
+     */
+    public Position getSafestCell() {
+        int best = -1;
+        for (int i = 0; i < probabilities.length; i++) {
+            if (hidden[i] && (best < 0 || probabilities[i] < probabilities[best])) {
+                best = i;
+            }
+        }
+        return best < 0 ? null : new Position(best / columns, best % columns);
+    }
+
+    /**
+     * Returns false if any frontier component ran over the size or time budget and its
+     * probabilities were estimated by sampling, or taken as uniform when no sample completed.
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+}
@@ -0,0 +1,217 @@
+package com.minesweeper.solver;
+
+import com.minesweeper.Board;
+import com.minesweeper.GameState;
+import com.minesweeper.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generates boards that can be solved without guessing from a given first click.
+ * <p>
+ * Candidate layouts keep the first click and its neighbours clear and are played out with a
+ * {@link ConstraintSolver}, plus the global rule that once every mine is known all other cells
+ * are safe. A candidate is accepted if the solver wins without ever running out of safe cells.
+ * <p>
+ * Candidates are numbered and each derives its layout from the seed and its number. Workers
+ * on a fork-join pool claim numbers in order and stop, abandoning the candidate in hand, as
+ * soon as a lower number has been accepted. The lowest accepted number always wins, so the
+ * result depends only on the seed, not on timing or parallelism.
+ * <p>
+ * Thread-safe; statistics accumulate over all calls.
+ */
+public class NoGuessGenerator {
+    private static final int DEFAULT_MAX_ATTEMPTS = 10_000;
+    private static final NoGuessGenerator DEFAULT = new NoGuessGenerator();
+
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final int maxAttempts;
+    private final LongAdder boards = new LongAdder();
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder elapsedNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+
+    public NoGuessGenerator() {
+        this(ForkJoinPool.commonPool(), ForkJoinPool.commonPool().getParallelism(), DEFAULT_MAX_ATTEMPTS);
+    }
+
+    /**
+     * @param pool The pool running the candidate search
+     * @param parallelism Number of candidates checked at once
+     * @param maxAttempts Number of candidates tried before giving up
+     */
+    public NoGuessGenerator(ForkJoinPool pool, int parallelism, int maxAttempts) {
+        if (parallelism < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("Parallelism and attempt limit must be positive");
+        }
+        this.pool = pool;
+        this.parallelism = parallelism;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Returns the shared generator used by {@link Board#createNoGuess}.
+     */
+    public static NoGuessGenerator getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Generates a board that can be solved without guessing once the first click is revealed.
+     * The returned board is unplayed.
+     * @throws IllegalArgumentException if the parameters are out of range
+     * @throws IllegalStateException if no candidate within the attempt limit is solvable
+     */
+    public Board generate(int rows, int columns, int mineCount, Position firstClick, long seed) {
+        // Fails fast on bad parameters instead of inside every worker; the search reuses this
+        // layout as candidate 0
+        Board first = candidate(rows, columns, mineCount, firstClick, seed, 0);
+
+        long start = System.nanoTime();
+        Search search = new Search(rows, columns, mineCount, firstClick, seed, first);
+        List<ForkJoinTask<?>> workers = new ArrayList<>();
+        for (int i = 1; i < parallelism; i++) {
+            workers.add(pool.submit(search::run));
+        }
+        search.run();
+        for (ForkJoinTask<?> worker : workers) {
+            worker.join();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        elapsedNanos.add(elapsed);
+        maxLatencyNanos.accumulate(elapsed);
+        if (search.result == null) {
+            throw new IllegalStateException("No guess-free layout found in " + maxAttempts + " attempts");
+        }
+        boards.increment();
+        return search.result;
+    }
+
+    /**
+     * Checks whether the board can be won from the first click without guessing.
+     */
+    public static boolean isSolvableWithoutGuessing(Board board, Position firstClick) {
+        return solve(board, firstClick, null, 0);
+    }
+
+    // Plays the board with the solver; gives up early once the search has accepted a
+    // candidate numbered below this one
+    private static boolean solve(Board board, Position firstClick, Search search, long number) {
+        board = board.reveal(firstClick);
+        ConstraintSolver solver = new ConstraintSolver(board.getRows(), board.getColumns());
+        solver.update(board, firstClick);
+        while (board.getGameState() == GameState.PLAYING) {
+            if (search != null && search.best.get() < number) {
+                return false;
+            }
+            List<Position> safeCells = solver.getSafeCells();
+            if (safeCells.isEmpty()) {
+                return allMinesKnown(board, solver);
+            }
+            for (Position position : safeCells) {
+                board = board.reveal(position);
+                solver.update(board, position);
+            }
+        }
+        return board.getGameState() == GameState.WON;
+    }
+
+    private static boolean allMinesKnown(Board board, ConstraintSolver solver) {
+        return solver.getMines().size() == board.getMineCount();
+    }
+
+    private static Board candidate(int rows, int columns, int mineCount, Position firstClick, long seed,
+            long number) {
+        return new Board.Builder(rows, columns)
+            .setMineCount(mineCount)
+            .setSafeArea(firstClick)
+            .setRandom(new SplittableRandom(seed ^ (number * 0x9E3779B97F4A7C15L)))
+            .build();
+    }
+
+    public Stats getStats() {
+        return new Stats(boards.sum(), attempts.sum(), rejections.sum(), elapsedNanos.sum(),
+            maxLatencyNanos.get());
+    }
+
+    /**
+     * Generator statistics. Attempts count candidates checked to the end; candidates abandoned
+     * after another was accepted are not counted.
+     */
+    public record Stats(long boards, long attempts, long rejections, long elapsedNanos, long maxLatencyNanos) {
+        public double rejectionRate() {
+            return attempts == 0 ? 0 : (double) rejections / attempts;
+        }
+
+        public double boardsPerSecond() {
+            return elapsedNanos == 0 ? 0 : boards * 1e9 / elapsedNanos;
+        }
+
+        public double attemptsPerBoard() {
+            return boards == 0 ? 0 : (double) attempts / boards;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("boards=%d attempts=%d rejections=%d rejectionRate=%.4f boardsPerSecond=%.1f maxLatencyMs=%.2f",
+                boards, attempts, rejections, rejectionRate(), boardsPerSecond(), maxLatencyNanos / 1e6);
+        }
+    }
+
+    private final class Search implements Runnable {
+        private final int rows;
+        private final int columns;
+        private final int mineCount;
+        private final Position firstClick;
+        private final long seed;
+        private final Board first;
+        private final AtomicLong next = new AtomicLong();
+        // Lowest accepted candidate number so far
+        private final AtomicLong best = new AtomicLong(Long.MAX_VALUE);
+        private Board result;
+
+        private Search(int rows, int columns, int mineCount, Position firstClick, long seed, Board first) {
+            this.rows = rows;
+            this.columns = columns;
+            this.mineCount = mineCount;
+            this.firstClick = firstClick;
+            this.seed = seed;
+            this.first = first;
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                long number = next.getAndIncrement();
+                if (number >= maxAttempts || number > best.get()) {
+                    return;
+                }
+                Board board = number == 0 ? first : candidate(rows, columns, mineCount, firstClick, seed, number);
+                if (solve(board, firstClick, this, number)) {
+                    attempts.increment();
+                    accept(number, board);
+                } else if (best.get() > number) {
+                    attempts.increment();
+                    rejections.increment();
+                }
+            }
+        }
+
+        private synchronized void accept(long number, Board board) {
+            if (number < best.get()) {
+                best.set(number);
+                result = board;
+            }
+        }
+    }
+}
@@ -0,0 +1,774 @@
+package com.minesweeper.solver;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Computes mine probabilities for hidden cells from the state a {@link ConstraintSolver}
+ * has collected.
+ * <p>
+ * The frontier (hidden cells next to a revealed number) is split into independent components
+ * that share no number. Each component's consistent assignments are counted by backtracking,
+ * per number of mines used, with the top levels of the search forked across a fork-join pool.
+ * The components are then combined with the cells off the frontier: a layout with K frontier
+ * mines is weighted by C(interior cells, remaining mines - K).
+ * <p>
+ * Component results are memoized by constraint structure, so a component a move did not touch
+ * is not enumerated again. A component over the size budget, or one whose search runs past the
+ * time budget, is estimated by weighted sampling of its assignments instead, within a time
+ * budget of the same length. A sampled component larger than {@value #MAX_PER_COUNT_CELLS} cells
+ * keeps only how often each cell was a mine, not broken down by mine count, so its memory and
+ * combining work grow linearly with its size.
+ * <p>
+ * Thread-safe.
+ */
+public class ProbabilityCalculator {
+    private static final int DEFAULT_MAX_EXACT_CELLS = 64;
+    private static final Duration DEFAULT_BUDGET = Duration.ofMillis(250);
+    private static final int DEFAULT_SAMPLES = 2_000;
+    private static final int MAX_CACHED_COMPONENTS = 10_000;
+    // Components at least this large fork the first FORK_DEPTH levels of their search
+    private static final int FORK_MIN_CELLS = 20;
+    private static final int FORK_DEPTH = 4;
+    private static final int DEADLINE_CHECK_INTERVAL = 1 << 12;
+    // Largest sampled component that keeps per-cell counts for every mine count
+    private static final int MAX_PER_COUNT_CELLS = 256;
+    private static final double[] LOG_FACTORIALS = new double[1024];
+
+    static {
+        for (int i = 1; i < LOG_FACTORIALS.length; i++) {
+            LOG_FACTORIALS[i] = LOG_FACTORIALS[i - 1] + Math.log(i);
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final int maxExactCells;
+    private final long budgetNanos;
+    private final int samples;
+    private final Map<ComponentKey, ComponentResult> cache = new ConcurrentHashMap<>();
+
+    public ProbabilityCalculator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_MAX_EXACT_CELLS, DEFAULT_BUDGET, DEFAULT_SAMPLES);
+    }
+
+    /**
+     * @param pool The pool running the enumeration
+     * @param maxExactCells Largest component enumerated exactly
+     * @param budget Time allowed for the exact enumeration of one call, and again for sampling
+     * @param samples Largest number of assignments sampled for a component over budget
+     */
+    public ProbabilityCalculator(ForkJoinPool pool, int maxExactCells, Duration budget, int samples) {
+        if (maxExactCells < 1 || samples < 1) {
+            throw new IllegalArgumentException("Cell and sample budgets must be positive");
+        }
+        this.pool = pool;
+        this.maxExactCells = maxExactCells;
+        this.budgetNanos = budget.toNanos();
+        this.samples = samples;
+    }
+
+    /**
+     * Computes the probabilities for the board the solver has seen.
+     * @param solver Solver holding the visible state and its deductions
+     * @param totalMines Number of mines on the board
+     * @throws IllegalStateException if no layout is consistent with the visible state
+     */
+    public MineProbabilities compute(ConstraintSolver solver, int totalMines) {
+        int rows = solver.getRows();
+        int columns = solver.getColumns();
+        int cellCount = rows * columns;
+        boolean[] hidden = new boolean[cellCount];
+        int knownMines = 0;
+        int unknownCells = 0;
+        for (int i = 0; i < cellCount; i++) {
+            if (solver.isKnownMine(i)) {
+                knownMines++;
+            } else if (solver.numberAt(i) < 0) {
+                hidden[i] = true;
+                if (!solver.isKnownSafe(i)) {
+                    unknownCells++;
+                }
+            }
+        }
+
+        // One constraint per number with unknown neighbours, over variable ids
+        int[] variableOf = new int[cellCount];
+        Arrays.fill(variableOf, -1);
+        int[] cellOf = new int[16];
+        int variableCount = 0;
+        List<int[]> constraints = new ArrayList<>();
+        List<Integer> sums = new ArrayList<>();
+        int[] unknown = new int[8];
+        for (int i = 0; i < cellCount; i++) {
+            int number = solver.numberAt(i);
+            if (number < 0) {
+                continue;
+            }
+            int count = 0;
+            int row = i / columns;
+            int col = i % columns;
+            for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+                for (int c = Math.max(0, col - 1); c <= Math.min(columns - 1, col + 1); c++) {
+                    int j = r * columns + c;
+                    if (solver.isKnownMine(j)) {
+                        number--;
+                    } else if (solver.numberAt(j) < 0 && !solver.isKnownSafe(j)) {
+                        unknown[count++] = j;
+                    }
+                }
+            }
+            if (count == 0) {
+                continue;
+            }
+            int[] variables = new int[count];
+            for (int k = 0; k < count; k++) {
+                int cell = unknown[k];
+                if (variableOf[cell] < 0) {
+                    if (variableCount == cellOf.length) {
+                        cellOf = Arrays.copyOf(cellOf, variableCount * 2);
+                    }
+                    cellOf[variableCount] = cell;
+                    variableOf[cell] = variableCount++;
+                }
+                variables[k] = variableOf[cell];
+            }
+            constraints.add(variables);
+            sums.add(number);
+        }
+
+        List<Component> components = split(constraints, sums, cellOf, variableCount);
+        List<ComponentTask> tasks = new ArrayList<>(components.size());
+        long deadline = System.nanoTime() + budgetNanos;
+        for (Component component : components) {
+            tasks.add(new ComponentTask(component, deadline));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+
+        List<ComponentResult> results = new ArrayList<>(tasks.size());
+        boolean exact = true;
+        for (ComponentTask task : tasks) {
+            ComponentResult result = task.join();
+            results.add(result);
+            exact &= result.exact;
+        }
+
+        double[] probabilities = combine(components, results, cellCount,
+            totalMines - knownMines, unknownCells - variableCount);
+        for (int i = 0; i < cellCount; i++) {
+            if (solver.isKnownMine(i)) {
+                probabilities[i] = 1;
+            } else if (!hidden[i] || solver.isKnownSafe(i)) {
+                probabilities[i] = 0;
+            }
+        }
+        return new MineProbabilities(rows, columns, probabilities, hidden, exact);
+    }
+
+    /**
+     * Groups constraints into components of variables linked through shared constraints.
+     * Variables are renumbered by cell index within each component so that identical
+     * structures produce identical keys.
+     */
+    private static List<Component> split(List<int[]> constraints, List<Integer> sums, int[] cellOf,
+                                         int variableCount) {
+        int[] parent = new int[variableCount];
+        for (int i = 0; i < variableCount; i++) {
+            parent[i] = i;
+        }
+        for (int[] constraint : constraints) {
+            for (int k = 1; k < constraint.length; k++) {
+                parent[find(parent, constraint[k])] = find(parent, constraint[0]);
+            }
+        }
+
+        Map<Integer, List<Integer>> variablesByRoot = new LinkedHashMap<>();
+        for (int v = 0; v < variableCount; v++) {
+            variablesByRoot.computeIfAbsent(find(parent, v), root -> new ArrayList<>()).add(v);
+        }
+        Map<Integer, List<Integer>> constraintsByRoot = new HashMap<>();
+        for (int c = 0; c < constraints.size(); c++) {
+            constraintsByRoot.computeIfAbsent(find(parent, constraints.get(c)[0]), root -> new ArrayList<>()).add(c);
+        }
+
+        List<Component> components = new ArrayList<>();
+        int[] local = new int[variableCount];
+        for (Map.Entry<Integer, List<Integer>> entry : variablesByRoot.entrySet()) {
+            int[] cells = entry.getValue().stream().mapToInt(v -> cellOf[v]).sorted().toArray();
+            for (int v : entry.getValue()) {
+                local[v] = Arrays.binarySearch(cells, cellOf[v]);
+            }
+            List<Integer> ids = constraintsByRoot.get(entry.getKey());
+            int[][] localConstraints = new int[ids.size()][];
+            int[] localSums = new int[ids.size()];
+            for (int c = 0; c < ids.size(); c++) {
+                int[] constraint = constraints.get(ids.get(c));
+                localConstraints[c] = new int[constraint.length];
+                for (int k = 0; k < constraint.length; k++) {
+                    localConstraints[c][k] = local[constraint[k]];
+                }
+                Arrays.sort(localConstraints[c]);
+                localSums[c] = sums.get(ids.get(c));
+            }
+            components.add(new Component(cells, localConstraints, localSums));
+        }
+        return components;
+    }
+
+    private static int find(int[] parent, int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    /**
+     * Weights every combination of per-component mine counts by the number of ways to place
+     * the remaining mines among the interior cells. Each component's counts are scaled to a
+     * maximum of 1 first; the scale is common to all terms and cancels out.
+     * <p>
+     * A component that kept only per-cell totals spreads the weight of its layouts with k mines
+     * over its cells in proportion to those totals. This ignores how a cell's chance of being a
+     * mine varies with the component's mine count, which is small once the component is large
+     * enough to be summarized this way.
+     */
+    private static double[] combine(List<Component> components, List<ComponentResult> results, int cellCount,
+                                    int remainingMines, int interiorCells) {
+        int n = results.size();
+        double[][] weights = new double[n][];
+        double[] scales = new double[n];
+        for (int i = 0; i < n; i++) {
+            double[] counts = results.get(i).counts;
+            double max = Arrays.stream(counts).max().orElse(0);
+            if (max == 0) {
+                throw new IllegalStateException("Visible board has no consistent mine layout");
+            }
+            scales[i] = max;
+            weights[i] = new double[counts.length];
+            for (int k = 0; k < counts.length; k++) {
+                weights[i][k] = counts[k] / max;
+            }
+        }
+
+        // prefix[i] convolves components before i, suffix[i] components from i on
+        double[][] prefix = new double[n + 1][];
+        double[][] suffix = new double[n + 1][];
+        prefix[0] = new double[] {1};
+        suffix[n] = new double[] {1};
+        for (int i = 0; i < n; i++) {
+            prefix[i + 1] = convolve(prefix[i], weights[i]);
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            suffix[i] = convolve(weights[i], suffix[i + 1]);
+        }
+        double[] all = prefix[n];
+
+        // Interior weight per total frontier mine count K: C(interior, remaining - K)
+        double[] interior = new double[all.length];
+        double maxLog = Double.NEGATIVE_INFINITY;
+        for (int k = 0; k < all.length; k++) {
+            int rest = remainingMines - k;
+            if (rest >= 0 && rest <= interiorCells && all[k] > 0) {
+                interior[k] = logChoose(interiorCells, rest);
+                maxLog = Math.max(maxLog, interior[k]);
+            } else {
+                interior[k] = Double.NaN;
+            }
+        }
+        if (maxLog == Double.NEGATIVE_INFINITY) {
+            throw new IllegalStateException("Visible board has no consistent mine layout");
+        }
+        double total = 0;
+        double interiorMines = 0;
+        for (int k = 0; k < all.length; k++) {
+            interior[k] = Double.isNaN(interior[k]) ? 0 : Math.exp(interior[k] - maxLog);
+            total += all[k] * interior[k];
+            interiorMines += all[k] * interior[k] * (remainingMines - k);
+        }
+
+        double[] probabilities = new double[cellCount];
+        double interiorProbability = interiorCells > 0 ? interiorMines / (total * interiorCells) : 0;
+        Arrays.fill(probabilities, interiorProbability);
+        for (int i = 0; i < n; i++) {
+            double[] others = convolve(prefix[i], suffix[i + 1]);
+            ComponentResult result = results.get(i);
+            // Weight of the component having k mines, over the other components and the interior
+            double[] countWeights = new double[result.counts.length];
+            for (int k = 0; k < countWeights.length; k++) {
+                for (int o = 0; o < others.length; o++) {
+                    countWeights[k] += others[o] * interior[k + o];
+                }
+                countWeights[k] /= scales[i] * total;
+            }
+            int[] cells = components.get(i).cells;
+            if (result.cellCounts != null) {
+                for (int v = 0; v < cells.length; v++) {
+                    double weight = 0;
+                    for (int k = 0; k < countWeights.length; k++) {
+                        weight += result.cellCounts[v][k] * countWeights[k];
+                    }
+                    probabilities[cells[v]] = weight;
+                }
+            } else {
+                double mines = 0;
+                double weightedMines = 0;
+                for (int k = 0; k < countWeights.length; k++) {
+                    mines += k * result.counts[k];
+                    weightedMines += k * result.counts[k] * countWeights[k];
+                }
+                for (int v = 0; v < cells.length; v++) {
+                    probabilities[cells[v]] = mines > 0 ? result.cellTotals[v] * weightedMines / mines : 0;
+                }
+            }
+        }
+        return probabilities;
+    }
+
+    private static double[] convolve(double[] a, double[] b) {
+        double[] result = new double[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == 0) {
+                continue;
+            }
+            for (int j = 0; j < b.length; j++) {
+                result[i + j] += a[i] * b[j];
+            }
+        }
+        return result;
+    }
+
+    private static double logChoose(long n, long k) {
+        return logFactorial(n) - logFactorial(k) - logFactorial(n - k);
+    }
+
+    private static double logFactorial(long n) {
+        if (n < LOG_FACTORIALS.length) {
+            return LOG_FACTORIALS[(int) n];
+        }
+        // Stirling series; the error is far below double precision at this size
+        double x = n;
+        return x * Math.log(x) - x + 0.5 * Math.log(2 * Math.PI * x) + 1 / (12 * x) - 1 / (360 * x * x * x);
+    }
+
+    /**
+     * A connected group of frontier cells and the numbers constraining them, in local
+     * variable indices.
+     */
+    private static final class Component {
+        private final int[] cells;
+        private final int[][] constraints;
+        private final int[] sums;
+        private final int[][] constraintsOf;
+        private final int[] order;
+        private final ComponentKey key;
+
+        private Component(int[] cells, int[][] constraints, int[] sums) {
+            this.cells = cells;
+            this.constraints = constraints;
+            this.sums = sums;
+            int n = cells.length;
+            int[] degree = new int[n];
+            for (int[] constraint : constraints) {
+                for (int v : constraint) {
+                    degree[v]++;
+                }
+            }
+            constraintsOf = new int[n][];
+            for (int v = 0; v < n; v++) {
+                constraintsOf[v] = new int[degree[v]];
+            }
+            int[] fill = new int[n];
+            for (int c = 0; c < constraints.length; c++) {
+                for (int v : constraints[c]) {
+                    constraintsOf[v][fill[v]++] = c;
+                }
+            }
+            order = searchOrder();
+            key = new ComponentKey(encode());
+        }
+
+        /**
+         * Breadth-first over shared constraints, so each constraint's variables are assigned
+         * close together and infeasible branches are cut early.
+         */
+        private int[] searchOrder() {
+            int n = cells.length;
+            int[] result = new int[n];
+            boolean[] seen = new boolean[n];
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            queue.add(0);
+            seen[0] = true;
+            int count = 0;
+            while (!queue.isEmpty()) {
+                int v = queue.poll();
+                result[count++] = v;
+                for (int c : constraintsOf[v]) {
+                    for (int w : constraints[c]) {
+                        if (!seen[w]) {
+                            seen[w] = true;
+                            queue.add(w);
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+
+        private int[] encode() {
+            int length = 2;
+            for (int[] constraint : constraints) {
+                length += 2 + constraint.length;
+            }
+            int[] encoded = new int[length];
+            int i = 0;
+            encoded[i++] = cells.length;
+            encoded[i++] = constraints.length;
+            for (int c = 0; c < constraints.length; c++) {
+                encoded[i++] = sums[c];
+                encoded[i++] = constraints[c].length;
+                for (int v : constraints[c]) {
+                    encoded[i++] = v;
+                }
+            }
+            return encoded;
+        }
+    }
+
+    private record ComponentKey(int[] encoded) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ComponentKey other && Arrays.equals(encoded, other.encoded);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(encoded);
+        }
+    }
+
+    /**
+     * Number of consistent assignments by mine count, overall and with each cell a mine. For a
+     * sampled component these are estimates, all scaled by the same unknown factor, and past
+     * {@value #MAX_PER_COUNT_CELLS} cells only each cell's total over all mine counts is kept.
+     */
+    private static final class ComponentResult {
+        private final double[] counts;
+        // By cell and mine count, or null when only the totals are kept
+        private final double[][] cellCounts;
+        // By cell over all mine counts, or null when the counts are kept
+        private final double[] cellTotals;
+        private final boolean exact;
+
+        private ComponentResult(int cells, boolean exact) {
+            this.counts = new double[cells + 1];
+            boolean perCount = exact || cells <= MAX_PER_COUNT_CELLS;
+            this.cellCounts = perCount ? new double[cells][cells + 1] : null;
+            this.cellTotals = perCount ? null : new double[cells];
+            this.exact = exact;
+        }
+
+        private void scale(double factor) {
+            for (int k = 0; k < counts.length; k++) {
+                counts[k] *= factor;
+            }
+            if (cellCounts != null) {
+                for (double[] cell : cellCounts) {
+                    for (int k = 0; k < cell.length; k++) {
+                        cell[k] *= factor;
+                    }
+                }
+            } else {
+                for (int v = 0; v < cellTotals.length; v++) {
+                    cellTotals[v] *= factor;
+                }
+            }
+        }
+
+        private void add(ComponentResult other) {
+            for (int k = 0; k < counts.length; k++) {
+                counts[k] += other.counts[k];
+            }
+            for (int v = 0; v < cellCounts.length; v++) {
+                for (int k = 0; k < counts.length; k++) {
+                    cellCounts[v][k] += other.cellCounts[v][k];
+                }
+            }
+        }
+    }
+
+    /**
+     * Partial assignment shared by the search and the sampler.
+     */
+    private static final class Assignment {
+        private final Component component;
+        private final byte[] values;
+        private final int[] mines;
+        private final int[] open;
+        private int mineCount;
+
+        private Assignment(Component component) {
+            this.component = component;
+            this.values = new byte[component.cells.length];
+            this.mines = new int[component.constraints.length];
+            this.open = new int[component.constraints.length];
+            for (int c = 0; c < open.length; c++) {
+                open[c] = component.constraints[c].length;
+            }
+        }
+
+        private Assignment(Assignment other) {
+            this.component = other.component;
+            this.values = other.values.clone();
+            this.mines = other.mines.clone();
+            this.open = other.open.clone();
+            this.mineCount = other.mineCount;
+        }
+
+        private boolean feasible(int v, int value) {
+            for (int c : component.constraintsOf[v]) {
+                int m = mines[c] + value;
+                if (m > component.sums[c] || m + open[c] - 1 < component.sums[c]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void assign(int v, int value) {
+            values[v] = (byte) value;
+            mineCount += value;
+            for (int c : component.constraintsOf[v]) {
+                mines[c] += value;
+                open[c]--;
+            }
+        }
+
+        private void clear() {
+            Arrays.fill(values, (byte) 0);
+            Arrays.fill(mines, 0);
+            for (int c = 0; c < open.length; c++) {
+                open[c] = component.constraints[c].length;
+            }
+            mineCount = 0;
+        }
+
+        private void unassign(int v, int value) {
+            values[v] = 0;
+            mineCount -= value;
+            for (int c : component.constraintsOf[v]) {
+                mines[c] -= value;
+                open[c]++;
+            }
+        }
+
+        private void record(ComponentResult result) {
+            record(result, 1);
+        }
+
+        private void record(ComponentResult result, double weight) {
+            result.counts[mineCount] += weight;
+            for (int v = 0; v < values.length; v++) {
+                if (values[v] == 1) {
+                    if (result.cellCounts != null) {
+                        result.cellCounts[v][mineCount] += weight;
+                    } else {
+                        result.cellTotals[v] += weight;
+                    }
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("serial") // Fork-join tasks are never serialized
+    private final class ComponentTask extends RecursiveTask<ComponentResult> {
+        private final Component component;
+        private final long deadline;
+
+        private ComponentTask(Component component, long deadline) {
+            this.component = component;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected ComponentResult compute() {
+            ComponentResult cached = cache.get(component.key);
+            if (cached != null) {
+                return cached;
+            }
+            if (component.cells.length > maxExactCells) {
+                return sample(component);
+            }
+            AtomicBoolean timedOut = new AtomicBoolean();
+            ComponentResult result = new Search(new Assignment(component), 0, deadline, timedOut).invoke();
+            if (timedOut.get()) {
+                return sample(component);
+            }
+            if (cache.size() >= MAX_CACHED_COMPONENTS) {
+                cache.clear();
+            }
+            cache.put(component.key, result);
+            return result;
+        }
+    }
+
+    /**
+     * Exhaustive backtracking over one component. The first levels fork a task per feasible
+     * value; deeper levels recurse in the current task.
+     */
+    @SuppressWarnings("serial")
+    private static final class Search extends RecursiveTask<ComponentResult> {
+        private final Assignment assignment;
+        private final int depth;
+        private final long deadline;
+        private final AtomicBoolean timedOut;
+        private long nodes;
+
+        private Search(Assignment assignment, int depth, long deadline, AtomicBoolean timedOut) {
+            this.assignment = assignment;
+            this.depth = depth;
+            this.deadline = deadline;
+            this.timedOut = timedOut;
+        }
+
+        @Override
+        protected ComponentResult compute() {
+            Component component = assignment.component;
+            int n = component.cells.length;
+            ComponentResult result = new ComponentResult(n, true);
+            if (depth < FORK_DEPTH && depth < n && n >= FORK_MIN_CELLS) {
+                int v = component.order[depth];
+                List<Search> children = new ArrayList<>(2);
+                for (int value = 0; value <= 1; value++) {
+                    if (assignment.feasible(v, value)) {
+                        Assignment child = new Assignment(assignment);
+                        child.assign(v, value);
+                        children.add(new Search(child, depth + 1, deadline, timedOut));
+                    }
+                }
+                for (Search child : ForkJoinTask.invokeAll(children)) {
+                    result.add(child.join());
+                }
+            } else {
+                search(depth, result);
+            }
+            return result;
+        }
+
+        private void search(int level, ComponentResult result) {
+            if ((++nodes & (DEADLINE_CHECK_INTERVAL - 1)) == 0 && System.nanoTime() > deadline) {
+                timedOut.set(true);
+            }
+            if (timedOut.get()) {
+                return;
+            }
+            Component component = assignment.component;
+            if (level == component.cells.length) {
+                assignment.record(result);
+                return;
+            }
+            int v = component.order[level];
+            for (int value = 0; value <= 1; value++) {
+                if (assignment.feasible(v, value)) {
+                    assignment.assign(v, value);
+                    search(level + 1, result);
+                    assignment.unassign(v, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Estimates a component by sequential importance sampling (Knuth's estimator). Each sample
+     * assigns the variables in search order, picking uniformly among the values that keep every
+     * constraint satisfiable, and is weighted by the product of the number of values it could
+     * pick from; a sample that runs into a dead end weighs nothing. The weighted counts are then
+     * unbiased estimates of the exact counts per mine count, so {@link #combine} weights them by
+     * the interior binomial terms just as it does exact results. Weights are powers of two, kept
+     * as exponents relative to the largest so far, so they cannot overflow; samples are
+     * recorded as they complete and the totals rescaled when a larger weight turns up.
+     * <p>
+     * Sampling stops at the sample budget or the time budget, whichever comes first. If no
+     * sample completes, the component's constraints are dropped and every assignment of its
+     * cells counts as equally likely. Seeded by the component structure, so results repeat
+     * when the time budget is not hit.
+     */
+    private ComponentResult sample(Component component) {
+        int n = component.cells.length;
+        SplittableRandom random = new SplittableRandom(component.key.hashCode());
+        long deadline = System.nanoTime() + budgetNanos;
+        ComponentResult result = new ComponentResult(n, false);
+        Assignment assignment = new Assignment(component);
+        int count = 0;
+        int maxExponent = 0;
+        for (int s = 0; s < samples && System.nanoTime() < deadline; s++) {
+            assignment.clear();
+            int exponent = sampleAssignment(assignment, random);
+            if (exponent < 0) {
+                continue;
+            }
+            if (count++ == 0) {
+                maxExponent = exponent;
+            } else if (exponent > maxExponent) {
+                result.scale(Math.scalb(1.0, maxExponent - exponent));
+                maxExponent = exponent;
+            }
+            assignment.record(result, Math.scalb(1.0, exponent - maxExponent));
+        }
+        if (count == 0) {
+            // Nothing to go on: C(n, k) assignments with k mines, each cell a mine in k / n of them
+            double peak = logChoose(n, n / 2);
+            double perCell = 0;
+            for (int k = 0; k <= n; k++) {
+                result.counts[k] = Math.exp(logChoose(n, k) - peak);
+                perCell += result.counts[k] * k / n;
+                if (result.cellCounts != null) {
+                    for (int v = 0; v < n; v++) {
+                        result.cellCounts[v][k] = result.counts[k] * k / n;
+                    }
+                }
+            }
+            if (result.cellTotals != null) {
+                Arrays.fill(result.cellTotals, perCell);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Draws one assignment into the given empty one.
+     * @return log2 of the sample's weight, or -1 if it ran into a dead end
+     */
+    private static int sampleAssignment(Assignment assignment, SplittableRandom random) {
+        Component component = assignment.component;
+        int exponent = 0;
+        for (int level = 0; level < component.cells.length; level++) {
+            int v = component.order[level];
+            boolean clear = assignment.feasible(v, 0);
+            boolean mine = assignment.feasible(v, 1);
+            if (!clear && !mine) {
+                return -1;
+            }
+            int value;
+            if (clear && mine) {
+                exponent++;
+                value = random.nextInt(2);
+            } else {
+                value = mine ? 1 : 0;
+            }
+            assignment.assign(v, value);
+        }
+        return exponent;
+    }
+}
@@ -0,0 +1,45 @@
+package com.minesweeper;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdjacencyCounterTest {
+    @Test
+    void testMatchesPerCellCount() {
+        Random random = new Random(31);
+        for (int t = 0; t < 200; t++) {
+            int rows = 1 + random.nextInt(40);
+            int columns = 1 + random.nextInt(40);
+            double density = random.nextDouble();
+            byte[] cells = new byte[rows * columns];
+            for (int i = 0; i < cells.length; i++) {
+                if (random.nextDouble() < density) {
+                    cells[i] |= Cell.MINE;
+                }
+                if (random.nextBoolean()) {
+                    cells[i] |= Cell.REVEALED;
+                }
+            }
+            byte[] expected = cells.clone();
+            AdjacencyCounter.countPerCell(expected, rows, columns);
+            AdjacencyCounter.count(cells, rows, columns);
+            assertArrayEquals(expected, cells, rows + "x" + columns);
+        }
+    }
+
+    @Test
+    void testCountsAllNeighboursOfSurroundedCell() {
+        byte[] cells = new byte[9 * 9];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = Cell.MINE;
+        }
+        cells[4 * 9 + 4] = 0;
+        AdjacencyCounter.count(cells, 9, 9);
+        assertEquals(8, cells[4 * 9 + 4]);
+        assertEquals(Cell.MINE | 3, cells[0]);
+        assertEquals(Cell.MINE | 5, cells[4]);
+    }
+}
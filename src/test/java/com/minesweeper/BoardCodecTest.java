@@ -0,0 +1,168 @@
+package com.minesweeper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoardCodecTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRoundTripPreservesBoard() throws IOException {
+        Random random = new Random(17);
+        for (int t = 0; t < 50; t++) {
+            int rows = 2 + random.nextInt(40);
+            int columns = 2 + random.nextInt(40);
+            Board board = new Board.Builder(rows, columns)
+                .setMineCount(1 + random.nextInt((int) (rows * columns * 0.35)))
+                .setSeed(random.nextLong())
+                .build();
+            for (int move = 0; move < 5; move++) {
+                board = board.reveal(new Position(random.nextInt(rows), random.nextInt(columns)));
+            }
+            for (boolean compress : new boolean[] {false, true}) {
+                Board decoded = BoardCodec.decode(BoardCodec.encode(board, compress));
+                assertSameBoard(board, decoded);
+            }
+        }
+    }
+
+    @Test
+    void testRoundTripPreservesFlags() throws IOException {
+        Board board = Board.create(12, 20, 3L)
+            .flag(new Position(0, 0))
+            .flag(new Position(5, 7));
+        for (boolean compress : new boolean[] {false, true}) {
+            Board decoded = BoardCodec.decode(BoardCodec.encode(board, compress));
+            assertSameBoard(board, decoded);
+            assertTrue(decoded.getCell(new Position(5, 7)).isFlagged());
+        }
+    }
+
+    @Test
+    void testDecodedBoardPlaysOn() throws IOException {
+        Board board = Board.create(9, 10, 3L);
+        Board decoded = BoardCodec.decode(BoardCodec.encode(board, true));
+        assertEquals(board.reveal(new Position(4, 4)).toString(), decoded.reveal(new Position(4, 4)).toString());
+    }
+
+    @Test
+    void testRunLengthShrinksSparseBoards() throws IOException {
+        Board board = new Board.Builder(1_000, 1_000).setMineCount(10).setSeed(1).build();
+        int raw = BoardCodec.encode(board, false).remaining();
+        int compressed = BoardCodec.encode(board, true).remaining();
+        assertTrue(raw > 2 * 1_000_000 / 8);
+        assertTrue(compressed < 200, "compressed to " + compressed);
+        assertSameBoard(board, BoardCodec.decode(BoardCodec.encode(board, true)));
+    }
+
+    @Test
+    void testBoardWithoutSeed() throws IOException {
+        Board board = Board.create(6, 5, new Random(4)).reveal(new Position(0, 0));
+        Board decoded = BoardCodec.decode(BoardCodec.encode(board, false));
+        assertTrue(decoded.getSeed().isEmpty());
+        assertSameBoard(board, decoded);
+    }
+
+    @Test
+    void testSaveAndLoadConcatenatedFile() throws IOException {
+        Path file = directory.resolve("games.bin");
+        List<Board> boards = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            for (long seed = 0; seed < 20; seed++) {
+                Board board = Board.create(16, 40, seed).reveal(new Position(8, 8));
+                boards.add(board);
+                BoardCodec.write(board, channel, seed % 2 == 0);
+            }
+        }
+        List<Board> loaded = BoardCodec.loadAll(file);
+        assertEquals(boards.size(), loaded.size());
+        for (int i = 0; i < boards.size(); i++) {
+            assertSameBoard(boards.get(i), loaded.get(i));
+        }
+
+        Path single = directory.resolve("one.bin");
+        BoardCodec.save(boards.get(3), single, true);
+        assertSameBoard(boards.get(3), BoardCodec.load(single));
+    }
+
+    @Test
+    void testRejectsInvalidData() {
+        assertThrows(IOException.class, () -> BoardCodec.decode(ByteBuffer.wrap(new byte[] {1, 2, 3, 4})));
+        ByteBuffer encoded = BoardCodec.encode(Board.create(5, 3, 1L), false);
+        ByteBuffer truncated = encoded.slice(0, encoded.remaining() - 3);
+        assertThrows(IOException.class, () -> BoardCodec.decode(truncated));
+        ByteBuffer future = BoardCodec.encode(Board.create(5, 3, 1L), false);
+        future.put(4, (byte) 99);
+        assertThrows(IOException.class, () -> BoardCodec.decode(future));
+        ByteBuffer narrow = BoardCodec.encode(Board.create(5, 3, 1L), false);
+        narrow.putInt(10, 1);
+        assertThrows(IOException.class, () -> BoardCodec.decode(narrow));
+    }
+
+    @Test
+    void testRunLengthPlanes() throws IOException {
+        // 3x3 boards; the mine plane is given as runs, the revealed plane is one clear run
+        Board board = BoardCodec.decode(withMineRuns(4, 1, 4));
+        assertTrue(board.getCell(new Position(1, 1)).isMine());
+        assertEquals(1, board.getMineCount());
+        Board leadingMine = BoardCodec.decode(withMineRuns(0, 1, 8));
+        assertTrue(leadingMine.getCell(new Position(0, 0)).isMine());
+        assertEquals(1, leadingMine.getMineCount());
+    }
+
+    @Test
+    void testRejectsTruncatedRunLengthPlane() {
+        assertThrows(IOException.class, () -> BoardCodec.decode(withMineRuns(4, 1)));
+        assertThrows(IOException.class, () -> BoardCodec.decode(withMineRuns()));
+        // Varint continued past the end of the plane
+        assertThrows(IOException.class, () -> BoardCodec.decode(withMineRuns(4, 0x81)));
+    }
+
+    @Test
+    void testRejectsOverlongRunLengthPlane() {
+        assertThrows(IOException.class, () -> BoardCodec.decode(withMineRuns(4, 1, 5)));
+        assertThrows(IOException.class, () -> BoardCodec.decode(withMineRuns(4, 1, 4, 1)));
+        assertThrows(IOException.class, () -> BoardCodec.decode(withMineRuns(0xFF, 0xFF, 0xFF, 0xFF, 0x07)));
+        // Empty runs after the first would let a plane spin without covering any cells
+        assertThrows(IOException.class, () -> BoardCodec.decode(withMineRuns(4, 0, 0, 1, 4)));
+        assertThrows(IOException.class, () -> BoardCodec.decode(withMineRuns(0, 0, 9)));
+    }
+
+    private static ByteBuffer withMineRuns(int... runs) {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        buffer.putInt(BoardCodec.MAGIC).put(BoardCodec.VERSION).put((byte) 0).putInt(3).putInt(3).putLong(0);
+        buffer.put((byte) 1).putInt(runs.length);
+        for (int run : runs) {
+            buffer.put((byte) run);
+        }
+        buffer.put((byte) 1).putInt(1).put((byte) 9);
+        return buffer.flip();
+    }
+
+    private static void assertSameBoard(Board expected, Board actual) {
+        assertEquals(expected.getRows(), actual.getRows());
+        assertEquals(expected.getColumns(), actual.getColumns());
+        assertEquals(expected.getMineCount(), actual.getMineCount());
+        assertEquals(expected.getGameState(), actual.getGameState());
+        assertEquals(expected.getSeed(), actual.getSeed());
+        for (int r = 0; r < expected.getRows(); r++) {
+            for (int c = 0; c < expected.getColumns(); c++) {
+                Position pos = new Position(r, c);
+                assertEquals(expected.getCell(pos).toBits(), actual.getCell(pos).toBits(), pos.toString());
+            }
+        }
+    }
+}
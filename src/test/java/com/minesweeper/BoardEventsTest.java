@@ -0,0 +1,63 @@
+package com.minesweeper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoardEventsTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void testGenerationAndRevealEmitEvents() throws Exception {
+        Board board;
+        Board revealed;
+        try (Recording recording = new Recording()) {
+            recording.enable(BoardEvents.Create.class);
+            recording.enable(BoardEvents.MinePlacement.class);
+            recording.enable(BoardEvents.AdjacencyCount.class);
+            recording.enable(BoardEvents.Reveal.class);
+            recording.enable(BoardEvents.Cascade.class);
+            recording.start();
+            board = new Board.Builder(30, 40).setMineCount(20).setSeed(3)
+                .setSafeArea(new Position(15, 20)).build();
+            revealed = board.reveal(new Position(15, 20));
+            recording.stop();
+            Path file = directory.resolve("board.jfr");
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            RecordedEvent create = only(events, "com.minesweeper.BoardCreate");
+            assertEquals(30, create.getInt("rows"));
+            assertEquals(40, create.getInt("columns"));
+            assertEquals(20, create.getInt("mineCount"));
+            assertFalse(create.getBoolean("parallel"));
+            assertEquals(1200, only(events, "com.minesweeper.MinePlacement").getInt("cells"));
+            assertEquals(40, only(events, "com.minesweeper.AdjacencyCount").getInt("columns"));
+
+            int cellsRevealed = revealed.changedCells().length;
+            RecordedEvent reveal = only(events, "com.minesweeper.Reveal");
+            assertEquals(cellsRevealed, reveal.getInt("cellsRevealed"));
+            assertTrue(reveal.getDuration().toNanos() >= 0);
+            RecordedEvent cascade = only(events, "com.minesweeper.Cascade");
+            assertEquals(cellsRevealed - 1, cascade.getInt("cellsRevealed"));
+            assertFalse(cascade.getBoolean("indexed"));
+            Files.delete(file);
+        }
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+}
@@ -0,0 +1,121 @@
+package com.minesweeper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoardPoolTest {
+    @Test
+    void testFirstTakeMissesThenRefillServesHits() throws InterruptedException {
+        try (BoardPool pool = new BoardPool.Builder().setCapacity(4).setRefillThreshold(2).build()) {
+            Board first = pool.take(9, 9, 10);
+            assertEquals(9, first.getRows());
+            assertEquals(10, first.getMineCount());
+            assertEquals(GameState.PLAYING, first.getGameState());
+            awaitAvailable(pool, 9, 9, 10, 4);
+
+            Board second = pool.take(9, 9, 10);
+            assertNotSame(first, second);
+            BoardPool.Stats stats = pool.getStats();
+            assertEquals(1, stats.hits());
+            assertEquals(1, stats.misses());
+            assertEquals(0.5, stats.hitRate(), 1e-12);
+            assertEquals(5, stats.generated());
+            assertEquals(1, stats.configurations());
+        }
+    }
+
+    @Test
+    void testWarmUpFillsAheadOfFirstTake() throws InterruptedException {
+        try (BoardPool pool = new BoardPool.Builder().setCapacity(3).setRefillThreshold(1).build()) {
+            pool.warmUp(5, 7, 4);
+            awaitAvailable(pool, 5, 7, 4, 3);
+            Board board = pool.take(5, 7, 4);
+            assertEquals(7, board.getColumns());
+            assertEquals(0, pool.getStats().misses());
+        }
+    }
+
+    @Test
+    void testQueueIsBoundedUnderBurst() throws InterruptedException {
+        try (BoardPool pool = new BoardPool.Builder().setCapacity(2).setRefillThreshold(1).build()) {
+            for (int i = 0; i < 50; i++) {
+                pool.take(4, 4, 3);
+                assertTrue(pool.available(4, 4, 3) <= 2);
+            }
+            assertEquals(50, pool.getStats().hits() + pool.getStats().misses());
+        }
+    }
+
+    @Test
+    void testPoolRefillsAfterConcurrentBurst() throws InterruptedException {
+        try (BoardPool pool = new BoardPool.Builder().setCapacity(4).setRefillThreshold(2).build()) {
+            // Takes racing with the end of a refill must not leave the queue drained for good
+            for (int round = 0; round < 20; round++) {
+                List<Thread> takers = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    takers.add(Thread.ofVirtual().start(() -> {
+                        for (int i = 0; i < 10; i++) {
+                            pool.take(4, 4, 3);
+                        }
+                    }));
+                }
+                for (Thread taker : takers) {
+                    taker.join();
+                }
+                // The last take may leave the queue one short, above the threshold, so no refill is due
+                long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+                while (pool.available(4, 4, 3) <= 2 && System.nanoTime() < deadline) {
+                    Thread.sleep(5);
+                }
+                assertTrue(pool.available(4, 4, 3) > 2, "round " + round);
+            }
+        }
+    }
+
+    @Test
+    void testIdleConfigurationsAreEvicted() throws InterruptedException {
+        try (BoardPool pool = new BoardPool.Builder().setIdleTimeout(Duration.ZERO).build()) {
+            pool.take(4, 4, 2);
+            Thread.sleep(1);
+            pool.take(5, 5, 2);
+            BoardPool.Stats stats = pool.getStats();
+            assertEquals(1, stats.evictions());
+            assertEquals(1, stats.configurations());
+            assertEquals(0, pool.available(4, 4, 2));
+        }
+    }
+
+    @Test
+    void testInvalidConfigurationIsNotRegistered() {
+        try (BoardPool pool = new BoardPool()) {
+            assertThrows(IllegalArgumentException.class, () -> pool.take(5, 5, 0));
+            assertEquals(0, pool.getStats().configurations());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new BoardPool.Builder().setCapacity(0).build());
+        assertThrows(IllegalArgumentException.class,
+            () -> new BoardPool.Builder().setCapacity(4).setRefillThreshold(4).build());
+    }
+
+    @Test
+    void testTakeAfterCloseGeneratesDirectly() {
+        BoardPool pool = new BoardPool();
+        pool.close();
+        assertEquals(3, pool.take(3, 3, 3).getRows());
+    }
+
+    private static void awaitAvailable(BoardPool pool, int rows, int columns, int mines, int expected)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (pool.available(rows, columns, mines) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, pool.available(rows, columns, mines));
+    }
+}
@@ -0,0 +1,123 @@
+package com.minesweeper;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.OptionalLong;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BoardRendererTest {
+    @Test
+    void testMatchesCellByCellRendering() throws IOException {
+        Random random = new Random(53);
+        for (int t = 0; t < 30; t++) {
+            int rows = 2 + random.nextInt(60);
+            int columns = 2 + random.nextInt(30);
+            Board board = new Board.Builder(rows, columns).setMineCount(1 + rows * columns / 10)
+                .setSeed(random.nextLong()).build();
+            for (int move = 0; move < 5; move++) {
+                board = board.reveal(new Position(random.nextInt(rows), random.nextInt(columns)))
+                    .flag(new Position(random.nextInt(rows), random.nextInt(columns)));
+            }
+            String expected = renderCellByCell(board);
+            BoardRenderer renderer = BoardRenderer.of(board);
+            assertEquals(expected, renderer.toString(board));
+            assertEquals(expected, board.toString());
+            StringWriter writer = new StringWriter();
+            renderer.render(board, writer);
+            assertEquals(expected, writer.toString());
+            ByteBuffer bytes = ByteBuffer.allocate((int) renderer.renderedLength());
+            renderer.render(board, bytes);
+            assertEquals(expected, new String(bytes.array(), StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    void testLabelsPastZ() {
+        Board board = Board.create(30, 1, 1L);
+        String[] lines = board.toString().split("\n");
+        assertEquals("Z  ", lines[26].substring(0, 3));
+        assertEquals("AA ", lines[27].substring(0, 3));
+        assertEquals("AD ", lines[30].substring(0, 3));
+    }
+
+    @Test
+    void testChangeRecords() throws IOException {
+        Board board = boardWithMines(3, 3, 0).reveal(new Position(2, 2));
+        StringBuilder out = new StringBuilder();
+        BoardRenderer renderer = BoardRenderer.of(board);
+        renderer.renderChanges(board, out);
+        assertEquals("C3=0 B2=1 B3=0 C2=0 A2=1 A3=0 B1=1 C1=0\n", out.toString());
+
+        out.setLength(0);
+        renderer.renderChanges(boardWithMines(3, 3, 0), out);
+        assertEquals("", out.toString());
+
+        out.setLength(0);
+        renderer.renderChanges(boardWithMines(3, 3, 0).flag(new Position(0, 0)), out);
+        assertEquals("A1=F\n", out.toString());
+    }
+
+    @Test
+    void testChangesSinceEarlierVersion() throws IOException {
+        Board start = boardWithMines(3, 3, 0);
+        Board later = start.reveal(new Position(0, 1)).flag(new Position(0, 0)).reveal(new Position(2, 2));
+        StringBuilder out = new StringBuilder();
+        BoardRenderer renderer = BoardRenderer.of(start);
+        renderer.renderChanges(start, later, out);
+        assertEquals("A1=F A2=1 A3=0 B1=1 B2=1 B3=0 C1=0 C2=0 C3=0\n", out.toString());
+
+        out.setLength(0);
+        renderer.renderChanges(later, later, out);
+        assertEquals("", out.toString());
+        assertThrows(IllegalArgumentException.class, () -> renderer.renderChanges(Board.create(4, 1, 1L), later, out));
+    }
+
+    @Test
+    void testAnsiUpdates() throws IOException {
+        Board board = boardWithMines(3, 3, 0).reveal(new Position(0, 1));
+        StringBuilder out = new StringBuilder();
+        BoardRenderer.of(board).renderAnsi(board, out);
+        assertEquals("\u001b[2;5H1\u001b[5;1H", out.toString());
+    }
+
+    @Test
+    void testRejectsOtherShapes() {
+        BoardRenderer renderer = new BoardRenderer(4, 4);
+        assertThrows(IllegalArgumentException.class, () -> renderer.toString(Board.create(5, 1, 1L)));
+    }
+
+    private static Board boardWithMines(int rows, int columns, int... mines) {
+        byte[] cells = new byte[rows * columns];
+        for (int index : mines) {
+            cells[index] = Cell.MINE;
+        }
+        Board.calculateAdjacentMines(cells, rows, columns);
+        return Board.fromPackedCells(rows, columns, cells, OptionalLong.empty());
+    }
+
+    // The rendering Board.toString() used to build, one Cell at a time
+    private static String renderCellByCell(Board board) {
+        StringBuilder sb = new StringBuilder();
+        int labelWidth = Position.rowLabel(board.getRows() - 1).length();
+        sb.append(" ".repeat(labelWidth + 1));
+        for (int i = 1; i <= board.getColumns(); i++) {
+            sb.append(i).append(" ");
+        }
+        sb.append("\n");
+        for (int row = 0; row < board.getRows(); row++) {
+            String label = Position.rowLabel(row);
+            sb.append(label).append(" ".repeat(labelWidth - label.length() + 1));
+            for (int col = 0; col < board.getColumns(); col++) {
+                sb.append(board.getCell(new Position(row, col)).getDisplayChar()).append(" ");
+            }
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+}
@@ -1,5 +1,6 @@
 
 package com.minesweeper;
+import java.util.List;
 import java.util.Random;
 
 import org.junit.jupiter.api.Test;
@@ -23,10 +24,137 @@ class BoardTest {
     assertEquals(5, mineCount);
     }
 
+    @Test
+    void testSeededCreationIsReproducible() {
+        Board first = Board.create(10, 20, 42L);
+        Board second = Board.create(10, 20, 42L);
+        for (int r = 0; r < 10; r++) {
+            for (int c = 0; c < 10; c++) {
+                Position pos = new Position(r, c);
+                assertEquals(first.getCell(pos).isMine(), second.getCell(pos).isMine());
+                assertEquals(first.getCell(pos).getAdjacentMines(), second.getCell(pos).getAdjacentMines());
+            }
+        }
+    }
+
+    @Test
+    void testMaximumDensityPlacesExactMineCount() {
+        Board board = Board.create(26, 236, new Random(7));
+        int mineCount = 0;
+        for (int r = 0; r < 26; r++) {
+            for (int c = 0; c < 26; c++) {
+                if (board.getCell(new Position(r, c)).isMine()) mineCount++;
+            }
+        }
+        assertEquals(236, mineCount);
+    }
+
+    @Test
+    void testMinePlacementIsUniform() {
+        int trials = 20_000;
+        int[] hits = new int[9];
+        Random random = new Random(1);
+        for (int t = 0; t < trials; t++) {
+            Board board = Board.create(3, 3, random);
+            for (int i = 0; i < 9; i++) {
+                if (board.getCell(new Position(i / 3, i % 3)).isMine()) hits[i]++;
+            }
+        }
+        // Each cell holds a mine in 3 of 9 positions on average
+        for (int count : hits) {
+            assertEquals(trials / 3.0, count, trials * 0.02);
+        }
+    }
+
+    @Test
+    void testSafeAreaStaysClear() {
+        Random random = new Random(11);
+        for (int t = 0; t < 200; t++) {
+            Position center = new Position(random.nextInt(6), random.nextInt(6));
+            Board board = new Board.Builder(6, 6).setMineCount(12).setSafeArea(center).setRandom(random).build();
+            int mineCount = 0;
+            for (int r = 0; r < 6; r++) {
+                for (int c = 0; c < 6; c++) {
+                    boolean mine = board.getCell(new Position(r, c)).isMine();
+                    if (mine) mineCount++;
+                    if (Math.abs(r - center.row()) <= 1 && Math.abs(c - center.col()) <= 1) {
+                        assertTrue(!mine, "Mine inside safe area around " + center);
+                    }
+                }
+            }
+            assertEquals(12, mineCount);
+        }
+        assertThrows(IllegalArgumentException.class,
+            () -> new Board.Builder(2, 2).setMineCount(1).setSafeArea(new Position(0, 0)).build());
+        assertThrows(IllegalArgumentException.class,
+            () -> new Board.Builder(5, 5).setMineCount(1).setSafeArea(new Position(5, 0)).build());
+    }
+
+    @Test
+    void testRebaseMatchesSequentialReveals() {
+        Random random = new Random(13);
+        for (int t = 0; t < 100; t++) {
+            Board base = Board.create(8, 6, random.nextLong());
+            Position first = new Position(random.nextInt(8), random.nextInt(8));
+            Position second = new Position(random.nextInt(8), random.nextInt(8));
+            // Two players move from the same version; the second move is merged into the first
+            Board merged = base.reveal(second).rebase(base.reveal(first));
+            Board sequential = base.reveal(first).reveal(second);
+            assertEquals(sequential.toString(), merged.toString());
+            assertEquals(sequential.getGameState(), merged.getGameState());
+        }
+    }
+
+    @Test
+    void testSeedIsKnownOnlyWhenGiven() {
+        assertEquals(42L, Board.create(5, 3, 42L).getSeed().getAsLong());
+        assertEquals(7L, new Board.Builder(3, 4).setMineCount(2).setSeed(7).build().getSeed().getAsLong());
+        assertTrue(Board.create(5, 3).getSeed().isEmpty());
+        assertTrue(new Board.Builder(3, 4).setMineCount(2).setSeed(7).setRandom(new Random(7)).build()
+            .getSeed().isEmpty());
+    }
+
+    @Test
+    void testRevealedBitsRestoreBoard() {
+        Board board = Board.create(9, 10, 4L);
+        Board played = board.reveal(new Position(0, 0)).reveal(new Position(8, 8)).reveal(new Position(4, 4));
+        Board restored = board.withRevealed(played.revealedBits());
+        assertEquals(played.toString(), restored.toString());
+        assertEquals(played.getGameState(), restored.getGameState());
+    }
+
     @Test
     void testInvalidBoardSize() {
     assertThrows(IllegalArgumentException.class, () -> Board.create(1, 1));
-    assertThrows(IllegalArgumentException.class, () -> Board.create(27, 1));
+    assertThrows(IllegalArgumentException.class, () -> new Board.Builder(2, 1).setMineCount(1).build());
+    assertThrows(IllegalArgumentException.class,
+        () -> new Board.Builder(50_000, 50_000).setMineCount(1).build());
+    }
+
+    @Test
+    void testRectangularBoard() {
+        Board board = new Board.Builder(3, 40).setMineCount(10).setSeed(3).build();
+        assertEquals(3, board.getRows());
+        assertEquals(40, board.getColumns());
+        assertThrows(IllegalStateException.class, board::getSize);
+        int mineCount = 0;
+        for (int r = 0; r < 3; r++) {
+            for (int c = 0; c < 40; c++) {
+                if (board.getCell(new Position(r, c)).isMine()) mineCount++;
+            }
+        }
+        assertEquals(10, mineCount);
+        assertSame(board, board.reveal(new Position(0, 40)));
+    }
+
+    @Test
+    void testLargeBoardAboveLetterRange() {
+        Board board = new Board.Builder(1_000, 1_000).setMineCount(150_000).setSeed(5).build();
+        assertEquals(1_000, board.getSize());
+        String rendered = new Board.Builder(30, 2).setMineCount(1).setSeed(1).build().toString();
+        assertTrue(rendered.startsWith("   1 2 \n"));
+        assertTrue(rendered.contains("\nZ  "));
+        assertTrue(rendered.contains("\nAD "));
     }
 
     @Test
@@ -116,6 +244,170 @@ class BoardTest {
             }
         }
 
+    @Test
+    void testCascadeStopsAtNumberedCells() {
+        // Mine at A4; column 3 holds the numbers bordering it
+        String[] layout = {
+            "...*",
+            "....",
+            "....",
+            "....",
+        };
+        Board board = boardFromLayout(layout);
+        Board revealed = board.reveal(new Position(3, 0));
+        String expected =
+            "  1 2 3 4 \n" +
+            "A 0 0 1 _ \n" +
+            "B 0 0 1 1 \n" +
+            "C 0 0 0 0 \n" +
+            "D 0 0 0 0 \n";
+        assertEquals(expected, revealed.toString());
+        assertEquals(GameState.WON, revealed.getGameState());
+    }
+
+    @Test
+    void testWinCountsPreRevealedCells() {
+        Cell[][] grid = new Cell[2][2];
+        grid[0][0] = new Cell.Builder(0, 0).setMine(true).build();
+        grid[0][1] = new Cell.Builder(0, 1).setAdjacentMines(1).setRevealed(true).build();
+        grid[1][0] = new Cell.Builder(1, 0).setAdjacentMines(1).setRevealed(true).build();
+        grid[1][1] = new Cell.Builder(1, 1).setAdjacentMines(1).build();
+        Board board = new Board(2, grid, GameState.PLAYING, new Random());
+        assertEquals(GameState.WON, board.reveal(new Position(1, 1)).getGameState());
+    }
+
+    @Test
+    void testFlagBlocksRevealUntilUnflagged() {
+        Board board = boardFromLayout(new String[] {"*..", "...", "..."});
+        Position mine = new Position(0, 0);
+        Board flagged = board.flag(mine);
+        assertTrue(flagged.getCell(mine).isFlagged());
+        assertEquals('F', flagged.getCell(mine).getDisplayChar());
+        assertSame(flagged, flagged.flag(mine));
+        assertSame(flagged, flagged.reveal(mine));
+        Board unflagged = flagged.unflag(mine);
+        assertTrue(!unflagged.getCell(mine).isFlagged());
+        assertEquals(GameState.LOST, unflagged.reveal(mine).getGameState());
+    }
+
+    @Test
+    void testCascadeClearsFlagsOnSafeCells() {
+        Board board = boardFromLayout(new String[] {"...*", "....", "....", "...."});
+        Board flagged = board.flag(new Position(2, 2));
+        Board revealed = flagged.reveal(new Position(3, 0));
+        assertTrue(revealed.getCell(new Position(2, 2)).isRevealed());
+        assertTrue(!revealed.getCell(new Position(2, 2)).isFlagged());
+        assertEquals(GameState.WON, revealed.getGameState());
+    }
+
+    @Test
+    void testRevealAllIsOneMove() {
+        Board board = boardFromLayout(new String[] {"*..", "...", "..*"});
+        List<Position> safe = List.of(new Position(0, 1), new Position(1, 0), new Position(1, 1),
+            new Position(9, 9), new Position(0, 1));
+        Board revealed = board.revealAll(safe);
+        Board sequential = board;
+        for (Position position : safe) {
+            sequential = sequential.reveal(position);
+        }
+        assertEquals(sequential.toString(), revealed.toString());
+        assertEquals(GameState.PLAYING, revealed.getGameState());
+        assertSame(board, board.revealAll(List.of()));
+    }
+
+    @Test
+    void testRevealAllStopsAtMine() {
+        Board board = boardFromLayout(new String[] {"*..", "...", "..*"});
+        Board lost = board.revealAll(List.of(new Position(0, 1), new Position(0, 0), new Position(1, 0)));
+        assertEquals(GameState.LOST, lost.getGameState());
+        assertTrue(lost.getCell(new Position(0, 1)).isRevealed());
+        assertTrue(!lost.getCell(new Position(1, 0)).isRevealed());
+    }
+
+    @Test
+    void testChordRevealsUnflaggedNeighbours() {
+        Board board = boardFromLayout(new String[] {"*..", "...", "..*"});
+        Board revealed = board.reveal(new Position(1, 1));
+        assertSame(revealed, revealed.chord(new Position(1, 1)));
+        Board flagged = revealed.flag(new Position(0, 0)).flag(new Position(2, 2));
+        Board chorded = flagged.chord(new Position(1, 1));
+        assertEquals(GameState.WON, chorded.getGameState());
+        assertTrue(chorded.getCell(new Position(0, 0)).isFlagged());
+    }
+
+    @Test
+    void testChordOnWrongFlagLoses() {
+        Board board = boardFromLayout(new String[] {"*..", "...", "..*"});
+        Board flagged = board.reveal(new Position(1, 1)).flag(new Position(0, 1)).flag(new Position(2, 2));
+        assertEquals(GameState.LOST, flagged.chord(new Position(1, 1)).getGameState());
+    }
+
+    @Test
+    void testChordRevealingSeveralMinesCountsOnlySafeCells() {
+        Board board = boardFromLayout(new String[] {"*.*", "...", "..."});
+        Board revealed = board.reveal(new Position(1, 1));
+        assertEquals(6, revealed.hiddenSafeCells());
+        Board flagged = revealed.flag(new Position(2, 0)).flag(new Position(2, 2));
+        Board chorded = flagged.chord(new Position(1, 1));
+        assertEquals(GameState.LOST, chorded.getGameState());
+        // Two mines and six safe cells: C2 is a zero cell and opens the wrongly flagged corners
+        assertEquals(8, chorded.changedCells().length);
+        assertEquals(0, chorded.hiddenSafeCells());
+    }
+
+    @Test
+    void testRebaseAppliesFlags() {
+        Board board = boardFromLayout(new String[] {"*..", "...", "..*"});
+        Board flagged = board.flag(new Position(0, 0));
+        Board revealed = board.reveal(new Position(0, 1));
+        Board merged = flagged.rebase(revealed);
+        assertTrue(merged.getCell(new Position(0, 0)).isFlagged());
+        assertTrue(merged.getCell(new Position(0, 1)).isRevealed());
+    }
+
+    private static Board boardFromLayout(String[] layout) {
+        int size = layout.length;
+        Cell[][] grid = new Cell[size][size];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int count = 0;
+                for (Position p : new Position(r, c).getAdjacentPositions(size)) {
+                    if (layout[p.row()].charAt(p.col()) == '*') count++;
+                }
+                grid[r][c] = new Cell.Builder(r, c)
+                    .setMine(layout[r].charAt(c) == '*')
+                    .setAdjacentMines(count)
+                    .build();
+            }
+        }
+        return new Board(size, grid, GameState.PLAYING, new Random());
+    }
+
+    @Test
+    void testPackedGridRoundTrip() {
+        int size = 3;
+        Cell[][] grid = new Cell[size][size];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                grid[r][c] = new Cell.Builder(r, c).setAdjacentMines(r + c).build();
+            }
+        }
+        grid[2][2] = new Cell.Builder(2, 2).setMine(true).setRevealed(true).build();
+        Board board = new Board(size, grid, GameState.PLAYING, new Random());
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                Cell cell = board.getCell(new Position(r, c));
+                assertEquals(new Position(r, c), cell.getPosition());
+                assertEquals(grid[r][c].isMine(), cell.isMine());
+                assertEquals(grid[r][c].isRevealed(), cell.isRevealed());
+                assertEquals(grid[r][c].getAdjacentMines(), cell.getAdjacentMines());
+                assertEquals(cell.toBits(), board.getCellState(new Position(r, c)).toBits());
+            }
+        }
+        // Cells in the same state share one instance
+        assertSame(board.getCellState(new Position(0, 1)), board.getCellState(new Position(1, 0)));
+    }
+
     @Test
     void testRevealMine() {
         Board board = Board.create(3, 1);
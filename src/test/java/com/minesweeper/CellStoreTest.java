@@ -0,0 +1,94 @@
+package com.minesweeper;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CellStoreTest {
+    @Test
+    void testOfReadsCells() {
+        byte[] cells = new byte[1000];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = (byte) (i % 7);
+        }
+        CellStore store = CellStore.of(cells);
+        assertEquals(1000, store.length());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 7, store.get(i));
+        }
+    }
+
+    @Test
+    void testToArrayCopiesEditedVersion() {
+        for (int length : new int[] {1, 255, 256, 257, 8_193, 70_000}) {
+            byte[] cells = new byte[length];
+            for (int i = 0; i < length; i++) {
+                cells[i] = (byte) (i % 5);
+            }
+            CellStore.Editor editor = CellStore.of(cells.clone()).edit();
+            editor.set(length - 1, (byte) 9);
+            cells[length - 1] = 9;
+            assertArrayEquals(cells, editor.build().toArray());
+        }
+    }
+
+    @Test
+    void testDifferencesBetweenVersions() {
+        CellStore original = CellStore.of(new byte[70_000]);
+        CellStore.Editor editor = original.edit();
+        for (int index : new int[] {69_999, 5, 300, 8_192}) {
+            editor.set(index, (byte) 1);
+        }
+        editor.set(301, (byte) 0);
+        CellStore edited = editor.build();
+        IntQueue differences = new IntQueue();
+        edited.addDifferences(original, differences);
+        assertArrayEquals(new int[] {5, 300, 8_192, 69_999}, differences.toArray());
+
+        differences = new IntQueue();
+        original.addDifferences(CellStore.of(new byte[70_000]), differences);
+        assertTrue(differences.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> edited.addDifferences(CellStore.of(new byte[10]), new IntQueue()));
+    }
+
+    @Test
+    void testEditDoesNotWriteThroughToSourceArray() {
+        byte[] cells = new byte[1000];
+        CellStore.Editor editor = CellStore.of(cells).edit();
+        editor.set(999, (byte) 5);
+        assertEquals(5, editor.build().get(999));
+        assertEquals(0, cells[999]);
+    }
+
+    @Test
+    void testEditLeavesPreviousVersionUnchanged() {
+        CellStore original = CellStore.of(new byte[100_000]);
+        CellStore.Editor editor = original.edit();
+        editor.set(0, (byte) 1);
+        editor.set(99_999, (byte) 2);
+        editor.set(0, (byte) 3);
+        CellStore updated = editor.build();
+
+        assertEquals(3, updated.get(0));
+        assertEquals(2, updated.get(99_999));
+        assertEquals(0, updated.get(50_000));
+        assertEquals(0, original.get(0));
+        assertEquals(0, original.get(99_999));
+    }
+
+    @Test
+    void testEmptyEditReturnsSameStore() {
+        CellStore store = CellStore.of(new byte[10]);
+        assertSame(store, store.edit().build());
+    }
+
+    @Test
+    void testEditorCannotBeReusedAfterBuild() {
+        CellStore.Editor editor = CellStore.of(new byte[10]).edit();
+        editor.build();
+        assertThrows(IllegalStateException.class, () -> editor.set(0, (byte) 1));
+    }
+}
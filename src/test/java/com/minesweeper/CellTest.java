@@ -3,6 +3,8 @@ package com.minesweeper;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class CellTest {
@@ -25,6 +27,31 @@ class CellTest {
 
    
 
+    @Test
+    void testFlaggedCell() {
+        Cell cell = new Cell.Builder(2, 2).setMine(true).setFlagged(true).build();
+        assertTrue(cell.isFlagged());
+        assertEquals('F', cell.getDisplayChar());
+        assertEquals(cell.toBits(), Cell.fromBits(2, 2, cell.toBits()).toBits());
+        Cell revealed = cell.reveal();
+        assertFalse(revealed.isFlagged());
+        assertEquals('*', revealed.getDisplayChar());
+    }
+
+    @Test
+    void testSharedCells() {
+        Cell hidden = Cell.shared(Cell.FLAGGED | 3);
+        assertSame(hidden, Cell.shared(Cell.FLAGGED | 3));
+        assertNull(hidden.getPosition());
+        assertEquals('F', hidden.getDisplayChar());
+        Cell revealed = hidden.reveal();
+        assertSame(Cell.shared(Cell.REVEALED | 3), revealed);
+        assertEquals('3', revealed.getDisplayChar());
+
+        Position position = new Position(4, 5);
+        assertSame(position, Cell.fromBits(position, Cell.MINE).getPosition());
+    }
+
     @Test
     void testUnrevealedCellDisplay() {
         Cell cell = new Cell.Builder(3, 3).build();
@@ -0,0 +1,63 @@
+package com.minesweeper;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EngineMetricsTest {
+    @Test
+    void testCountsGamesMovesAndOutcomes() {
+        EngineMetrics metrics = new EngineMetrics();
+        try (GameEngine engine = new GameEngine(new SessionRegistry(), new BoardPool(), null, metrics)) {
+            String lost = engine.newGame(5, 5, 3);
+            Position mine = find(engine.getBoard(lost), true);
+            engine.reveal(lost, mine);
+            engine.reveal(lost, mine);
+
+            String won = engine.newGame(4, 4, 2);
+            Position safe;
+            while ((safe = find(engine.getBoard(won), false)) != null) {
+                engine.reveal(won, safe);
+            }
+            int wonMoves = (int) metrics.snapshot().moves() - 2;
+
+            EngineMetrics.Snapshot snapshot = metrics.snapshot();
+            assertEquals(2, snapshot.gamesStarted());
+            assertEquals(1, snapshot.wins());
+            assertEquals(1, snapshot.losses());
+            assertTrue(wonMoves >= 1);
+            assertEquals(snapshot.moves(), snapshot.revealLatency().count());
+            assertTrue(snapshot.revealLatency().max() > 0);
+            assertTrue(snapshot.toString().startsWith("gamesStarted=2 moves=" + snapshot.moves() + " wins=1 losses=1 "));
+        }
+    }
+
+    @Test
+    void testDisabledRecordsNothing() {
+        EngineMetrics metrics = EngineMetrics.disabled();
+        assertFalse(metrics.isEnabled());
+        try (GameEngine engine = new GameEngine()) {
+            assertSame(metrics, engine.getMetrics());
+            String session = engine.newGame(5, 5, 3);
+            engine.reveal(session, new Position(2, 2));
+        }
+        assertEquals(0, metrics.snapshot().gamesStarted());
+        assertEquals(0, metrics.snapshot().moves());
+        assertEquals(0, metrics.startMove());
+    }
+
+    // First hidden cell that is (or is not) a mine, or null if there is none
+    private static Position find(Board board, boolean mine) {
+        for (int row = 0; row < board.getRows(); row++) {
+            for (int col = 0; col < board.getColumns(); col++) {
+                Cell cell = board.getCell(new Position(row, col));
+                if (!cell.isRevealed() && cell.isMine() == mine) {
+                    return new Position(row, col);
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,38 @@
+package com.minesweeper;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameEngineTest {
+    @Test
+    void testSessionsAreIndependent() {
+        try (GameEngine engine = new GameEngine()) {
+            String first = engine.newGame(6, 6, 4);
+            String second = engine.newGame(3, 8, 2);
+            assertEquals(2, engine.getSessionCount());
+            assertEquals(8, engine.getBoard(second).getColumns());
+
+            Board before = engine.getBoard(second);
+            Board after = engine.reveal(first, new Position(0, 0));
+            assertNotSame(before, after);
+            assertTrue(after.getCell(new Position(0, 0)).isRevealed());
+            assertFalse(engine.getBoard(second).getCell(new Position(0, 0)).isRevealed());
+
+            engine.endGame(first);
+            assertFalse(engine.hasSession(first));
+            assertThrows(IllegalArgumentException.class, () -> engine.reveal(first, new Position(0, 0)));
+        }
+    }
+
+    @Test
+    void testInvalidGameIsRejected() {
+        try (GameEngine engine = new GameEngine()) {
+            assertThrows(IllegalArgumentException.class, () -> engine.newGame(1, 1, 1));
+            assertEquals(0, engine.getSessionCount());
+        }
+    }
+}
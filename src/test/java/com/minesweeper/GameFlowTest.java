@@ -25,11 +25,22 @@ class GameFlowTest {
         assertThrows(IllegalArgumentException.class, () -> game.parsePosition("A6", 5));
     }
 
+    @Test
+    void testParsePositionRectangular() {
+        Game game = new Game();
+        Position pos = game.parsePosition("AB12", 100, 20);
+        assertEquals(27, pos.row());
+        assertEquals(11, pos.col());
+        assertThrows(IllegalArgumentException.class, () -> game.parsePosition("A21", 100, 20));
+        assertThrows(IllegalArgumentException.class, () -> game.parsePosition("CW1", 100, 20));
+    }
+
     @Test
     void testInputPattern() {
         assertTrue(Game.INPUT_PATTERN.matcher("A1").matches());
         assertTrue(Game.INPUT_PATTERN.matcher("B10").matches());
-        assertFalse(Game.INPUT_PATTERN.matcher("AA1").matches());
+        assertTrue(Game.INPUT_PATTERN.matcher("AA1").matches());
+        assertTrue(Game.INPUT_PATTERN.matcher("ZZ10000").matches());
         assertFalse(Game.INPUT_PATTERN.matcher("1A").matches());
         assertFalse(Game.INPUT_PATTERN.matcher("A0").matches());
     }
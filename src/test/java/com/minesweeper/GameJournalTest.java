@@ -0,0 +1,222 @@
+package com.minesweeper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameJournalTest {
+    private static final String FIRST = "8000000000000001";
+    private static final String SECOND = "8000000000000002";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testReplayRestoresGames() throws IOException {
+        Board first = Board.create(9, 10, 1L);
+        Board second = new Board.Builder(4, 6).setMineCount(3).setSeed(2L).build();
+        try (GameJournal journal = new GameJournal(directory)) {
+            assertTrue(journal.getRecoveredSessions().isEmpty());
+            journal.logNew(FIRST, 1L, 9, 9, 10);
+            journal.logNew(SECOND, 2L, 4, 6, 3);
+            journal.logReveal(FIRST, 0);
+            first = first.reveal(new Position(0, 0));
+            journal.logReveal(FIRST, 80);
+            first = first.reveal(new Position(8, 8));
+            journal.logEnd(SECOND);
+        }
+        try (GameJournal journal = new GameJournal(directory)) {
+            Map<String, Board> recovered = journal.getRecoveredSessions();
+            assertEquals(1, recovered.size());
+            assertEquals(first.toString(), recovered.get(FIRST).toString());
+            assertEquals(first.getGameState(), recovered.get(FIRST).getGameState());
+        }
+        assertFalse(second.getCell(new Position(0, 0)).isRevealed());
+    }
+
+    @Test
+    void testSnapshotBoundsReplay() throws IOException {
+        Board board = Board.create(9, 10, 3L);
+        try (GameJournal journal = new GameJournal(directory)) {
+            journal.logNew(FIRST, 3L, 9, 9, 10);
+            journal.logReveal(FIRST, 40);
+            board = board.reveal(new Position(4, 4));
+            Board snapshotBoard = board;
+            journal.snapshot(() -> Map.of(FIRST, snapshotBoard));
+            journal.logReveal(FIRST, 8);
+            board = board.reveal(new Position(0, 8));
+        }
+        // Only the segment written after the snapshot is left to replay
+        assertEquals(1, segmentCount());
+        try (GameJournal journal = new GameJournal(directory)) {
+            assertEquals(board.toString(), journal.getRecoveredSessions().get(FIRST).toString());
+            journal.snapshot(() -> journal.getRecoveredSessions());
+        }
+        assertEquals(1, segmentCount());
+        try (GameJournal journal = new GameJournal(directory)) {
+            assertEquals(board.toString(), journal.getRecoveredSessions().get(FIRST).toString());
+        }
+    }
+
+    @Test
+    void testTornTailIsIgnored() throws IOException {
+        try (GameJournal journal = new GameJournal(directory)) {
+            journal.logNew(FIRST, 5L, 5, 5, 3);
+            journal.logReveal(FIRST, 12);
+        }
+        Path segment = segments().get(segments().size() - 1);
+        // A crash in the middle of the next record leaves a partial entry behind
+        Files.write(segment, new byte[] {2, 0x7f, 0, 0}, StandardOpenOption.APPEND);
+        try (GameJournal journal = new GameJournal(directory)) {
+            Board expected = Board.create(5, 3, 5L).reveal(new Position(2, 2));
+            assertEquals(expected.toString(), journal.getRecoveredSessions().get(FIRST).toString());
+        }
+    }
+
+    @Test
+    void testSegmentFromAnotherLayoutVersionIsRefused() throws IOException {
+        try (GameJournal journal = new GameJournal(directory)) {
+            journal.logNew(FIRST, 5L, 5, 5, 3);
+        }
+        // The seed would place different mines under another version, so replaying it must fail
+        writeInt(segments().get(0), 4, Board.LAYOUT_VERSION + 1);
+        IOException e = assertThrows(IOException.class, () -> new GameJournal(directory));
+        assertTrue(e.getMessage().contains("layout version"), e.getMessage());
+        writeInt(segments().get(0), 0, 0);
+        assertThrows(IOException.class, () -> new GameJournal(directory));
+    }
+
+    @Test
+    void testSnapshotFromAnotherLayoutVersionIsRefused() throws IOException {
+        try (GameJournal journal = new GameJournal(directory)) {
+            journal.logNew(FIRST, 5L, 5, 5, 3);
+            journal.snapshot(() -> Map.of(FIRST, Board.create(5, 3, 5L)));
+        }
+        writeInt(directory.resolve("snapshot.bin"), 8, Board.LAYOUT_VERSION + 1);
+        IOException e = assertThrows(IOException.class, () -> new GameJournal(directory));
+        assertTrue(e.getMessage().contains("layout version"), e.getMessage());
+    }
+
+    @Test
+    void testConcurrentAppendsShareCommits() throws Exception {
+        int threads = 8;
+        int sessions = 50;
+        try (GameJournal journal = new GameJournal(directory)) {
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                workers.add(Thread.ofVirtual().start(() -> {
+                    for (int i = offset; i < sessions; i += threads) {
+                        String id = Long.toHexString(Long.MIN_VALUE | i);
+                        journal.logNew(id, i, 5, 5, 2);
+                        journal.logReveal(id, 0);
+                    }
+                }));
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        }
+        try (GameJournal journal = new GameJournal(directory)) {
+            Map<String, Board> recovered = journal.getRecoveredSessions();
+            assertEquals(sessions, recovered.size());
+            for (int i = 0; i < sessions; i++) {
+                Board expected = Board.create(5, 2, i).reveal(new Position(0, 0));
+                assertEquals(expected.toString(), recovered.get(Long.toHexString(Long.MIN_VALUE | i)).toString());
+            }
+        }
+    }
+
+    @Test
+    void testEngineRecoversFromJournal() throws IOException {
+        String session;
+        String rendered;
+        try (GameEngine engine = new GameEngine(new SessionRegistry(), new BoardPool(), new GameJournal(directory, 3))) {
+            session = engine.newGame(9, 9, 10);
+            String ended = engine.newGame(5, 5, 2);
+            engine.endGame(ended);
+            for (int i = 0; i < 9; i++) {
+                engine.reveal(session, new Position(i, i));
+            }
+            rendered = engine.getBoard(session).toString();
+        }
+        try (GameEngine engine = new GameEngine(new SessionRegistry(), new BoardPool(), new GameJournal(directory))) {
+            assertEquals(1, engine.getSessionCount());
+            assertEquals(rendered, engine.getBoard(session).toString());
+        }
+    }
+
+    @Test
+    void testRacingRevealsRecoverAsPlayed() throws Exception {
+        Random random = new Random(29);
+        for (int round = 0; round < 20; round++) {
+            Path games = directory.resolve("round-" + round);
+            String session;
+            Board live;
+            try (GameEngine engine = new GameEngine(new SessionRegistry(), new BoardPool(), new GameJournal(games))) {
+                String shared = engine.newGame(6, 6, 4);
+                session = shared;
+                // Players sweep the board in different orders, so mine and last safe reveals race
+                List<Thread> players = new ArrayList<>();
+                for (int p = 0; p < 4; p++) {
+                    List<Position> order = new ArrayList<>();
+                    for (int i = 0; i < 36; i++) {
+                        order.add(new Position(i / 6, i % 6));
+                    }
+                    Collections.shuffle(order, new Random(random.nextLong()));
+                    players.add(Thread.ofPlatform().start(() -> order.forEach(position -> engine.reveal(shared, position))));
+                }
+                for (Thread player : players) {
+                    player.join();
+                }
+                live = engine.getBoard(session);
+            }
+            try (GameJournal journal = new GameJournal(games)) {
+                Board recovered = journal.getRecoveredSessions().get(session);
+                assertEquals(live.getGameState(), recovered.getGameState(), "round " + round);
+                assertArrayEquals(live.packedCells(), recovered.packedCells(), "round " + round);
+            }
+        }
+    }
+
+    @Test
+    void testClosedJournalRejectsRecords() throws IOException {
+        GameJournal journal = new GameJournal(directory);
+        journal.close();
+        assertThrows(IllegalStateException.class, () -> journal.logEnd(FIRST));
+        assertThrows(IllegalArgumentException.class, () -> new GameJournal(directory, 0));
+    }
+
+    private static void writeInt(Path file, long offset, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, value), offset);
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        return segments().size();
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("journal-")).sorted().toList();
+        }
+    }
+}
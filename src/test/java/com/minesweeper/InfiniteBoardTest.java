@@ -0,0 +1,101 @@
+package com.minesweeper;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class InfiniteBoardTest {
+    @Test
+    void testSameSeedSameMinefield() {
+        InfiniteBoard first = new InfiniteBoard(9L, 0.2);
+        InfiniteBoard second = new InfiniteBoard(9L, 0.2);
+        for (int r = -40; r < 40; r++) {
+            for (int c = -40; c < 40; c++) {
+                Position pos = new Position(r, c);
+                assertEquals(first.getCell(pos).isMine(), second.getCell(pos).isMine());
+            }
+        }
+    }
+
+    @Test
+    void testAdjacencyAcrossChunkBorders() {
+        InfiniteBoard board = new InfiniteBoard(3L, 0.25);
+        for (int r = -33; r <= 33; r++) {
+            for (int c = -33; c <= 33; c++) {
+                int expected = 0;
+                for (int dr = -1; dr <= 1; dr++) {
+                    for (int dc = -1; dc <= 1; dc++) {
+                        if ((dr != 0 || dc != 0) && board.getCell(new Position(r + dr, c + dc)).isMine()) {
+                            expected++;
+                        }
+                    }
+                }
+                assertEquals(expected, board.getCell(new Position(r, c)).getAdjacentMines());
+            }
+        }
+    }
+
+    @Test
+    void testCascadeCrossesChunkBorders() {
+        InfiniteBoard board = new InfiniteBoard(11L, 0.15);
+        // Find two zero cells that touch across the border between columns 31 and 32
+        for (int r = 0; r < 10_000; r++) {
+            Cell left = board.getCell(new Position(r, 31));
+            Cell right = board.getCell(new Position(r, 32));
+            if (!left.isMine() && !right.isMine() && left.getAdjacentMines() == 0 && right.getAdjacentMines() == 0) {
+                assertEquals(GameState.PLAYING, board.reveal(new Position(r, 31)));
+                assertTrue(board.getCell(new Position(r, 32)).isRevealed());
+                assertTrue(board.getCell(new Position(r, 33)).isRevealed());
+                return;
+            }
+        }
+        fail();
+    }
+
+    @Test
+    void testRevealedCellsSurviveEviction() {
+        InfiniteBoard board = new InfiniteBoard(5L, 0.2, 2);
+        Position[] revealed = new Position[5];
+        for (int i = 0; i < revealed.length; i++) {
+            Position pos = safeCell(board, i * 1_000);
+            board.reveal(pos);
+            revealed[i] = pos;
+        }
+        assertTrue(board.getLoadedChunkCount() <= 2);
+        assertTrue(board.getEvictedChunkCount() >= 3);
+        for (Position pos : revealed) {
+            assertTrue(board.getCell(pos).isRevealed());
+        }
+    }
+
+    @Test
+    void testRevealMineLoses() {
+        InfiniteBoard board = new InfiniteBoard(1L, 0.3);
+        for (int c = 0; c < 1_000; c++) {
+            Position pos = new Position(0, c);
+            if (board.getCell(pos).isMine()) {
+                assertEquals(GameState.LOST, board.reveal(pos));
+                assertEquals(GameState.LOST, board.reveal(new Position(5, 5)));
+                return;
+            }
+        }
+        fail();
+    }
+
+    @Test
+    void testInvalidDensity() {
+        assertThrows(IllegalArgumentException.class, () -> new InfiniteBoard(1L, 0.05));
+        assertThrows(IllegalArgumentException.class, () -> new InfiniteBoard(1L, 0.5));
+    }
+
+    private static Position safeCell(InfiniteBoard board, int row) {
+        for (int c = 0; ; c++) {
+            Cell cell = board.getCell(new Position(row, c));
+            if (!cell.isMine() && cell.getAdjacentMines() > 0) {
+                return new Position(row, c);
+            }
+        }
+    }
+}
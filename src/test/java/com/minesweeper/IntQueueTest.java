@@ -0,0 +1,33 @@
+package com.minesweeper;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.NoSuchElementException;
+
+class IntQueueTest {
+    @Test
+    void testFifoOrderAcrossGrowth() {
+        IntQueue queue = new IntQueue(4);
+        queue.add(0);
+        queue.add(1);
+        queue.add(2);
+        assertEquals(0, queue.poll());
+        // Wrap around the end of the buffer, then force it to grow
+        for (int i = 3; i < 20; i++) {
+            queue.add(i);
+        }
+        assertEquals(19, queue.size());
+        for (int i = 1; i < 20; i++) {
+            assertEquals(i, queue.poll());
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void testPollEmpty() {
+        assertThrows(NoSuchElementException.class, () -> new IntQueue().poll());
+    }
+}
@@ -0,0 +1,48 @@
+package com.minesweeper;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+    @Test
+    void testBucketsCoverEveryValueWithinAnEighth() {
+        long[] values = {0, 1, 7, 8, 9, 15, 16, 17, 1000, 123_456_789, Long.MAX_VALUE};
+        for (long value : values) {
+            int bucket = LatencyHistogram.bucket(value);
+            long highest = LatencyHistogram.highestValue(bucket);
+            assertTrue(highest >= value, "bucket of " + value);
+            assertTrue(bucket == 0 || LatencyHistogram.highestValue(bucket - 1) < value, "bucket of " + value);
+            assertTrue(highest - value <= value / 8, "width of bucket of " + value);
+        }
+        assertEquals(LatencyHistogram.bucket(Long.MAX_VALUE), LatencyHistogram.bucket(Long.MAX_VALUE - 1));
+    }
+
+    @Test
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value * 1000);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.count());
+        assertEquals(500_500, snapshot.mean(), 1e-9);
+        assertEquals(1_000_000, snapshot.max());
+        assertWithinAnEighth(500_000, snapshot.p50());
+        assertWithinAnEighth(900_000, snapshot.p90());
+        assertWithinAnEighth(990_000, snapshot.p99());
+        assertEquals(1_000_000, snapshot.p999());
+    }
+
+    @Test
+    void testEmptyAndNegative() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(new LatencyHistogram.Snapshot(0, 0, 0, 0, 0, 0, 0), histogram.snapshot());
+        histogram.record(-5);
+        assertEquals(new LatencyHistogram.Snapshot(1, 0, 0, 0, 0, 0, 0), histogram.snapshot());
+    }
+
+    private static void assertWithinAnEighth(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected + expected / 8, expected + " vs " + actual);
+    }
+}
@@ -0,0 +1,138 @@
+package com.minesweeper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.OptionalLong;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedBoardTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void testMatchesBoardWithSameMines() throws IOException {
+        Random random = new Random(23);
+        for (int t = 0; t < 30; t++) {
+            int rows = 2 + random.nextInt(30);
+            int columns = 2 + random.nextInt(30);
+            int mines = 1 + random.nextInt((int) (rows * columns * 0.35));
+            try (MappedBoard mapped = MappedBoard.create(directory.resolve("board.bin"), rows, columns, mines,
+                    random.nextLong())) {
+                Board board = copyMines(mapped);
+                assertSameCells(board, mapped);
+                for (int move = 0; move < 5; move++) {
+                    Position position = new Position(random.nextInt(rows), random.nextInt(columns));
+                    board = board.reveal(position);
+                    assertEquals(board.getGameState(), mapped.reveal(position));
+                    assertSameCells(board, mapped);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testPlacesExactMineCountDeterministically() throws IOException {
+        try (MappedBoard first = MappedBoard.create(directory.resolve("a.bin"), 50, 70, 900, 5);
+             MappedBoard second = MappedBoard.create(directory.resolve("b.bin"), 50, 70, 900, 5)) {
+            int mines = 0;
+            for (int r = 0; r < 50; r++) {
+                for (int c = 0; c < 70; c++) {
+                    Position position = new Position(r, c);
+                    assertEquals(first.getCell(position).isMine(), second.getCell(position).isMine());
+                    mines += first.getCell(position).isMine() ? 1 : 0;
+                }
+            }
+            assertEquals(900, mines);
+            assertEquals(50 * 70 - 900, first.getHiddenSafeCells());
+        }
+    }
+
+    @Test
+    void testReopenKeepsProgress() throws IOException {
+        Path file = directory.resolve("board.bin");
+        Position position = new Position(3, 3);
+        GameState state;
+        long hidden;
+        try (MappedBoard board = MappedBoard.create(file, 20, 20, 40, 11)) {
+            state = board.reveal(position);
+            hidden = board.getHiddenSafeCells();
+        }
+        try (MappedBoard board = MappedBoard.open(file)) {
+            assertEquals(20, board.getRows());
+            assertEquals(20, board.getColumns());
+            assertEquals(40, board.getMineCount());
+            assertEquals(state, board.getGameState());
+            assertEquals(hidden, board.getHiddenSafeCells());
+            assertTrue(board.getCell(position).isRevealed());
+        }
+    }
+
+    @Test
+    void testRejectsInvalidInput() throws IOException {
+        assertThrows(IllegalArgumentException.class,
+            () -> MappedBoard.create(directory.resolve("a.bin"), 1, 10, 1, 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> MappedBoard.create(directory.resolve("a.bin"), 10, 10, 36, 0));
+        Path junk = directory.resolve("junk.bin");
+        Files.write(junk, new byte[100]);
+        assertThrows(IllegalArgumentException.class, () -> MappedBoard.open(junk));
+    }
+
+    @Test
+    void testOpenRejectsCorruptHeaders() throws IOException {
+        Path file = directory.resolve("board.bin");
+        MappedBoard.create(file, 20, 20, 40, 11).close();
+        byte[] valid = Files.readAllBytes(file);
+        // Rows below the minimum, too many mines, an unknown game state and a bad counter
+        int[][] corruptions = {{8, 1}, {20, 400}, {32, GameState.values().length}, {28, -1}};
+        for (int[] corruption : corruptions) {
+            byte[] bytes = valid.clone();
+            ByteBuffer.wrap(bytes).putInt(corruption[0], corruption[1]);
+            Files.write(file, bytes);
+            assertThrows(IllegalArgumentException.class, () -> MappedBoard.open(file), "offset " + corruption[0]);
+        }
+        // A truncated file is rejected rather than grown back by the mapping
+        Files.write(file, Arrays.copyOf(valid, valid.length - 8));
+        assertThrows(IllegalArgumentException.class, () -> MappedBoard.open(file));
+        assertEquals(valid.length - 8, Files.size(file));
+    }
+
+    private static Board copyMines(MappedBoard mapped) {
+        int rows = mapped.getRows();
+        int columns = mapped.getColumns();
+        byte[] cells = new byte[rows * columns];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                if (mapped.getCell(new Position(r, c)).isMine()) {
+                    cells[r * columns + c] = Cell.MINE;
+                }
+            }
+        }
+        Board.calculateAdjacentMines(cells, rows, columns);
+        return Board.fromPackedCells(rows, columns, cells, OptionalLong.empty());
+    }
+
+    private static void assertSameCells(Board expected, MappedBoard actual) {
+        for (int r = 0; r < expected.getRows(); r++) {
+            for (int c = 0; c < expected.getColumns(); c++) {
+                Position position = new Position(r, c);
+                Cell want = expected.getCell(position);
+                Cell got = actual.getCell(position);
+                assertEquals(want.isMine(), got.isMine(), position.toString());
+                assertEquals(want.isRevealed(), got.isRevealed(), position.toString());
+                if (!want.isMine()) {
+                    assertEquals(want.getAdjacentMines(), got.getAdjacentMines(), position.toString());
+                }
+            }
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.minesweeper;
 
 import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class PositionTest {
     @Test
@@ -28,4 +30,64 @@ class PositionTest {
         Position[] cornerAdj = corner.getAdjacentPositions(3);
         assertEquals(3, cornerAdj.length);
     }
+
+    @Test
+    void testAdjacentPositionsRectangular() {
+        assertEquals(5, new Position(0, 5).getAdjacentPositions(2, 10).length);
+        assertEquals(3, new Position(1, 9).getAdjacentPositions(2, 10).length);
+    }
+
+    @Test
+    void testCachedNeighboursMatchAndAreCopies() {
+        // Cached shapes, a shape too large to cache, and a position off the board
+        int[][] shapes = {{3, 3}, {2, 10}, {10, 2}, {16, 30}, {100, 100}};
+        for (int[] shape : shapes) {
+            for (int r = 0; r < shape[0]; r++) {
+                for (int c = 0; c < shape[1]; c++) {
+                    Position[] adjacent = new Position(r, c).getAdjacentPositions(shape[0], shape[1]);
+                    int expected = 0;
+                    for (int dr = -1; dr <= 1; dr++) {
+                        for (int dc = -1; dc <= 1; dc++) {
+                            Position p = new Position(r + dr, c + dc);
+                            if ((dr != 0 || dc != 0) && p.isValid(shape[0], shape[1])) {
+                                assertEquals(p, adjacent[expected++]);
+                            }
+                        }
+                    }
+                    assertEquals(expected, adjacent.length);
+                }
+            }
+        }
+        assertEquals(1, new Position(-1, -1).getAdjacentPositions(3).length);
+
+        Position[] first = new Position(1, 1).getAdjacentPositions(3);
+        Position[] copy = first.clone();
+        first[0] = null;
+        assertArrayEquals(copy, new Position(1, 1).getAdjacentPositions(3));
+    }
+
+    @Test
+    void testRowLabels() {
+        assertEquals("A", Position.rowLabel(0));
+        assertEquals("Z", Position.rowLabel(25));
+        assertEquals("AA", Position.rowLabel(26));
+        assertEquals("ZZ", Position.rowLabel(701));
+        assertEquals("AAA", Position.rowLabel(702));
+        for (int row : new int[] {0, 25, 26, 701, 702, 9_999, Integer.MAX_VALUE}) {
+            assertEquals(row, Position.parseRowLabel(Position.rowLabel(row)));
+        }
+        assertEquals(27, Position.parseRowLabel("ab"));
+        assertThrows(IllegalArgumentException.class, () -> Position.parseRowLabel("A1"));
+        assertThrows(IllegalArgumentException.class, () -> Position.parseRowLabel("ZZZZZZZ"));
+    }
+
+    @Test
+    void testParse() {
+        assertEquals(new Position(27, 11), Position.parse("ab12", 100, 20));
+        assertThrows(IllegalArgumentException.class, () -> Position.parse("A21", 100, 20));
+        assertThrows(IllegalArgumentException.class, () -> Position.parse("A", 100, 20));
+        for (String input : new String[] {"A+1", "A01", "A0", "A-1", "A 1", "A1 ", "A\uFF11"}) {
+            assertThrows(IllegalArgumentException.class, () -> Position.parse(input, 100, 20), input);
+        }
+    }
 }
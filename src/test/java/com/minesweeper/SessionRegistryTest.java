@@ -0,0 +1,134 @@
+package com.minesweeper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionRegistryTest {
+    @Test
+    void testAddGetRemove() {
+        SessionRegistry registry = new SessionRegistry();
+        Board board = Board.create(4, 2, 1L);
+        String first = registry.add(board);
+        String second = registry.add(board);
+        assertNotEquals(first, second);
+        assertSame(board, registry.get(first));
+        assertEquals(2, registry.size());
+        assertTrue(registry.remove(first));
+        assertFalse(registry.remove(first));
+        assertFalse(registry.contains(first));
+        assertThrows(IllegalArgumentException.class, () -> registry.get(first));
+        assertThrows(IllegalArgumentException.class, () -> registry.update(first, b -> b));
+    }
+
+    @Test
+    void testUpdatePublishesMoveResult() {
+        SessionRegistry registry = new SessionRegistry();
+        Board board = Board.create(5, 3, 2L);
+        String id = registry.add(board);
+        Position safe = firstSafeCell(board);
+        Board next = registry.update(id, b -> b.reveal(safe));
+        assertSame(next, registry.get(id));
+        assertTrue(next.getCell(safe).isRevealed());
+        // A move that changes nothing publishes nothing
+        assertSame(next, registry.update(id, b -> b.reveal(safe)));
+    }
+
+    @Test
+    void testConcurrentUpdatesAreNotLost() throws InterruptedException {
+        SessionRegistry registry = new SessionRegistry();
+        int size = 20;
+        Board board = new Board.Builder(size, size).setMineCount(1).setSafeArea(new Position(0, 0)).setSeed(3).build();
+        String id = registry.add(board);
+        int threads = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                // Each thread reveals its own rows; no reveal may overwrite another's
+                for (int r = offset; r < size; r += threads) {
+                    for (int c = 0; c < size; c++) {
+                        Position pos = new Position(r, c);
+                        registry.update(id, b -> {
+                            calls.incrementAndGet();
+                            return b.getCell(pos).isMine() ? b : b.reveal(pos);
+                        });
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertEquals(GameState.WON, registry.get(id).getGameState());
+        assertTrue(calls.get() >= size * size);
+    }
+
+    @Test
+    void testConcurrentRevealsMergeIntoOneBoard() throws InterruptedException {
+        SessionRegistry registry = new SessionRegistry();
+        int size = 24;
+        Board board = Board.create(size, 60, 8L);
+        String id = registry.add(board);
+        List<Position> safeCells = new ArrayList<>();
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                if (!board.getCell(new Position(r, c)).isMine()) safeCells.add(new Position(r, c));
+            }
+        }
+        int threads = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = offset; i < safeCells.size(); i += threads) {
+                    registry.reveal(id, safeCells.get(i));
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        Board expected = board;
+        for (Position pos : safeCells) {
+            expected = expected.reveal(pos);
+        }
+        assertEquals(GameState.WON, registry.get(id).getGameState());
+        assertEquals(expected.toString(), registry.get(id).toString());
+    }
+
+    private static Position firstSafeCell(Board board) {
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getColumns(); c++) {
+                if (!board.getCell(new Position(r, c)).isMine()) {
+                    return new Position(r, c);
+                }
+            }
+        }
+        throw new AssertionError("No safe cell");
+    }
+}
@@ -0,0 +1,112 @@
+package com.minesweeper;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TiledGeneratorTest {
+    @Test
+    void testSameSeedGivesSameCellsWhateverThePool() {
+        byte[] expected = TiledGenerator.generate(new ForkJoinPool(1), 500, 97, 61, 1500, 99, new int[0]);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int t = 0; t < 5; t++) {
+                assertArrayEquals(expected, TiledGenerator.generate(pool, 500, 97, 61, 1500, 99, new int[0]));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testPlacesExactCountAndCountsAcrossBands() {
+        int[] excluded = {0, 1, 2, 40, 41, 42, 80, 81, 82};
+        byte[] cells = TiledGenerator.generate(ForkJoinPool.commonPool(), 120, 50, 40, 600, 3, excluded);
+        byte[] expected = new byte[cells.length];
+        int mines = 0;
+        for (int i = 0; i < cells.length; i++) {
+            expected[i] = (byte) (cells[i] & Cell.MINE);
+            mines += (cells[i] & Cell.MINE) != 0 ? 1 : 0;
+        }
+        assertEquals(600, mines);
+        for (int index : excluded) {
+            assertEquals(0, cells[index] & Cell.MINE);
+        }
+        AdjacencyCounter.countPerCell(expected, 50, 40);
+        assertArrayEquals(expected, cells);
+    }
+
+    @Test
+    void testLayoutIsUniformAcrossBands() {
+        // One row per band, so every mine's band is decided by the hypergeometric splits
+        int trials = 40_000;
+        int[] hits = new int[16];
+        for (int t = 0; t < trials; t++) {
+            byte[] cells = TiledGenerator.generate(ForkJoinPool.commonPool(), 4, 4, 4, 3, t, new int[0]);
+            for (int i = 0; i < cells.length; i++) {
+                if ((cells[i] & Cell.MINE) != 0) {
+                    hits[i]++;
+                }
+            }
+        }
+        double expected = trials * 3 / 16.0;
+        for (int count : hits) {
+            assertTrue(Math.abs(count - expected) < expected * 0.05, "cell hit " + count + " times");
+        }
+    }
+
+    @Test
+    void testHypergeometricMeanAndVariance() {
+        SplittableRandom random = new SplittableRandom(7);
+        long population = 1_000_000;
+        long successes = 300_000;
+        long draws = 50_000;
+        int samples = 20_000;
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (int i = 0; i < samples; i++) {
+            long k = TiledGenerator.sampleHypergeometric(population, successes, draws, random);
+            sum += k;
+            sumOfSquares += (double) k * k;
+        }
+        double mean = sum / samples;
+        double variance = sumOfSquares / samples - mean * mean;
+        double p = (double) successes / population;
+        double expectedVariance = draws * p * (1 - p) * (population - draws) / (population - 1.0);
+        assertEquals(draws * p, mean, 1.0);
+        assertEquals(expectedVariance, variance, expectedVariance * 0.05);
+    }
+
+    @Test
+    void testHypergeometricEdges() {
+        SplittableRandom random = new SplittableRandom(1);
+        assertEquals(0, TiledGenerator.sampleHypergeometric(10, 0, 5, random));
+        assertEquals(5, TiledGenerator.sampleHypergeometric(10, 10, 5, random));
+        assertEquals(4, TiledGenerator.sampleHypergeometric(10, 4, 10, random));
+        for (int i = 0; i < 1000; i++) {
+            long k = TiledGenerator.sampleHypergeometric(10, 7, 6, random);
+            assertTrue(k >= 3 && k <= 6, "outside the support: " + k);
+        }
+    }
+
+    @Test
+    void testLogFactorialMatchesSum() {
+        double sum = 0;
+        for (int n = 1; n <= 2000; n++) {
+            sum += Math.log(n);
+            assertEquals(sum, TiledGenerator.logFactorial(n), 1e-9 * Math.max(1, sum));
+        }
+    }
+
+    @Test
+    void testLargeBoardsAreReproducible() {
+        Board first = new Board.Builder(1024, 1024).setMineCount(150_000).setSeed(5).build();
+        Board second = new Board.Builder(1024, 1024).setMineCount(150_000).setSeed(5).build();
+        assertArrayEquals(first.packedCells(), second.packedCells());
+        assertEquals(150_000, first.getMineCount());
+    }
+}
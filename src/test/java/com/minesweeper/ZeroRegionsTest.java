@@ -0,0 +1,140 @@
+package com.minesweeper;
+
+import java.util.ArrayDeque;
+import java.util.OptionalLong;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ZeroRegionsTest {
+    @Test
+    void testSplitByWallOfMines() {
+        Board board = boardWithMines(3, 5, 2, 7, 12);
+        assertEquals(2, board.getOpeningCount());
+        assertEquals(2, board.get3BV());
+    }
+
+    @Test
+    void testIsolatedNumbersCountTowardsBoardValue() {
+        // Mines on both diagonals of a 3x3 leave only the middle edges, all numbered and apart
+        Board board = boardWithMines(3, 3, 0, 2, 4, 6, 8);
+        assertEquals(0, board.getOpeningCount());
+        assertEquals(4, board.get3BV());
+    }
+
+    @Test
+    void testMatchesFloodFillCount() {
+        Random random = new Random(41);
+        for (int t = 0; t < 100; t++) {
+            int rows = 2 + random.nextInt(30);
+            int columns = 2 + random.nextInt(30);
+            Board board = new Board.Builder(rows, columns)
+                .setMineCount(1 + random.nextInt((int) (rows * columns * 0.35)))
+                .setSeed(random.nextLong())
+                .build();
+            int[] expected = floodFillCounts(board.packedCells(), rows, columns);
+            assertEquals(expected[0], board.getOpeningCount());
+            assertEquals(expected[0] + expected[1], board.get3BV());
+        }
+    }
+
+    @Test
+    void testBulkRevealMatchesCascade() {
+        Random random = new Random(43);
+        for (int t = 0; t < 100; t++) {
+            int rows = 2 + random.nextInt(30);
+            int columns = 2 + random.nextInt(30);
+            int mines = 1 + random.nextInt(Math.max(1, (int) (rows * columns * 0.2)));
+            long seed = random.nextLong();
+            Board cascading = new Board.Builder(rows, columns).setMineCount(mines).setSeed(seed).build();
+            Board indexed = new Board.Builder(rows, columns).setMineCount(mines).setSeed(seed).build();
+            indexed.get3BV();
+            for (int move = 0; move < 10; move++) {
+                Position position = new Position(random.nextInt(rows), random.nextInt(columns));
+                cascading = cascading.reveal(position);
+                indexed = indexed.reveal(position);
+                assertArrayEquals(cascading.packedCells(), indexed.packedCells());
+                assertEquals(cascading.getGameState(), indexed.getGameState());
+            }
+        }
+    }
+
+    @Test
+    void testPartlyRevealedRegionRevealsLikeCascade() {
+        // One opening around a mine in the corner, cut in two by a revealed column of zero cells
+        int rows = 3;
+        int columns = 7;
+        byte[] cells = new byte[rows * columns];
+        cells[rows * columns - 1] = Cell.MINE;
+        Board.calculateAdjacentMines(cells, rows, columns);
+        for (int r = 0; r < rows; r++) {
+            cells[r * columns + 3] |= Cell.REVEALED;
+        }
+        Board cascading = Board.fromPackedCells(rows, columns, cells.clone(), OptionalLong.empty());
+        Board indexed = Board.fromPackedCells(rows, columns, cells.clone(), OptionalLong.empty());
+        assertEquals(1, indexed.getOpeningCount());
+        cascading = cascading.reveal(new Position(0, 0));
+        indexed = indexed.reveal(new Position(0, 0));
+        assertArrayEquals(cascading.packedCells(), indexed.packedCells());
+        assertEquals(cascading.hiddenSafeCells(), indexed.hiddenSafeCells());
+        assertFalse(indexed.getCell(new Position(0, 5)).isRevealed());
+        assertEquals(GameState.PLAYING, indexed.getGameState());
+    }
+
+    @Test
+    void testRejectsNumberedCell() {
+        byte[] cells = {Cell.MINE, 0, 0, 0};
+        Board.calculateAdjacentMines(cells, 2, 2);
+        assertThrows(IllegalArgumentException.class, () -> ZeroRegions.of(cells, 2, 2).regionOf(1));
+    }
+
+    private static Board boardWithMines(int rows, int columns, int... mines) {
+        byte[] cells = new byte[rows * columns];
+        for (int index : mines) {
+            cells[index] = Cell.MINE;
+        }
+        Board.calculateAdjacentMines(cells, rows, columns);
+        return Board.fromPackedCells(rows, columns, cells, OptionalLong.empty());
+    }
+
+    // Returns {openings, numbered cells bordering no opening} by flood filling every zero cell
+    private static int[] floodFillCounts(byte[] cells, int rows, int columns) {
+        boolean[] opened = new boolean[cells.length];
+        int openings = 0;
+        for (int i = 0; i < cells.length; i++) {
+            if (opened[i] || (cells[i] & (Cell.MINE | Cell.ADJACENT_MASK)) != 0) {
+                continue;
+            }
+            openings++;
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            queue.add(i);
+            opened[i] = true;
+            while (!queue.isEmpty()) {
+                int current = queue.poll();
+                for (int r = current / columns - 1; r <= current / columns + 1; r++) {
+                    for (int c = current % columns - 1; c <= current % columns + 1; c++) {
+                        int index = r * columns + c;
+                        if (r < 0 || r >= rows || c < 0 || c >= columns || opened[index]) {
+                            continue;
+                        }
+                        opened[index] = true;
+                        if ((cells[index] & Cell.ADJACENT_MASK) == 0) {
+                            queue.add(index);
+                        }
+                    }
+                }
+            }
+        }
+        int isolated = 0;
+        for (int i = 0; i < cells.length; i++) {
+            if (!opened[i] && (cells[i] & Cell.MINE) == 0) {
+                isolated++;
+            }
+        }
+        return new int[] {openings, isolated};
+    }
+}
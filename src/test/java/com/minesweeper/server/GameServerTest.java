@@ -0,0 +1,255 @@
+package com.minesweeper.server;
+
+import com.minesweeper.Board;
+import com.minesweeper.BoardPool;
+import com.minesweeper.EngineMetrics;
+import com.minesweeper.GameEngine;
+import com.minesweeper.Position;
+import com.minesweeper.SessionRegistry;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameServerTest {
+    @Test
+    void testPlaySessionOverSocket() throws Exception {
+        try (GameEngine engine = new GameEngine(); GameServer server = new GameServer(engine, 0)) {
+            server.start();
+            try (Client client = new Client(server.getPort())) {
+                List<String> created = client.send("NEW 5 3");
+                assertTrue(created.get(0).matches("OK [0-9a-f]+ PLAYING"), created.get(0));
+                assertEquals(1 + 1 + 5, created.size());
+                String session = created.get(0).split(" ")[1];
+
+                List<String> revealed = client.send("a1");
+                assertTrue(revealed.get(0).startsWith("OK " + session + " "));
+                assertTrue(client.send("REVEAL B2").get(0).startsWith("OK " + session));
+                assertEquals(created.size(), client.send("SHOW").size());
+
+                assertTrue(client.send("ZZ99").get(0).startsWith("ERR "));
+                assertTrue(client.send("NEW 1 1").get(0).startsWith("ERR "));
+                assertTrue(client.send("NEW 2000 1").get(0).startsWith("ERR Board can have at most"));
+                assertTrue(client.send("NEW 1000 1000 10").get(0).startsWith("ERR Board can have at most"));
+                assertTrue(client.send("NEW 2 46341 1").get(0).startsWith("ERR Board can have at most"));
+                assertTrue(client.send("DANCE").get(0).startsWith("ERR "));
+                assertTrue(client.send("JOIN nosuchsession").get(0).startsWith("ERR "));
+                assertEquals(1, engine.getSessionCount());
+                assertEquals("OK BYE", client.send("QUIT").get(0));
+            }
+            // Sessions started by a connection end with it
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while (engine.getSessionCount() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(0, engine.getSessionCount());
+        }
+    }
+
+    @Test
+    void testCommandsNeedAGame() throws Exception {
+        try (GameEngine engine = new GameEngine(); GameServer server = new GameServer(engine, 0)) {
+            server.start();
+            try (Client client = new Client(server.getPort())) {
+                assertTrue(client.send("SHOW").get(0).startsWith("ERR No game"));
+                assertTrue(client.send("A1").get(0).startsWith("ERR No game"));
+            }
+        }
+    }
+
+    @Test
+    void testStatsShowsMetrics() throws Exception {
+        try (GameEngine engine = new GameEngine(new SessionRegistry(), new BoardPool(), null, new EngineMetrics());
+             GameServer server = new GameServer(engine, 0)) {
+            server.start();
+            try (Client client = new Client(server.getPort())) {
+                client.send("NEW 5 2");
+                client.send("A1");
+                List<String> stats = client.send("STATS");
+                assertEquals("OK STATS", stats.get(0));
+                assertTrue(stats.get(1).startsWith("gamesStarted=1 moves=1 "), stats.get(1));
+            }
+        }
+        try (GameEngine engine = new GameEngine(); GameServer server = new GameServer(engine, 0)) {
+            server.start();
+            try (Client client = new Client(server.getPort())) {
+                assertEquals(List.of("ERR Metrics are disabled"), client.send("STATS"));
+            }
+        }
+    }
+
+    @Test
+    void testJoinSharesSession() throws Exception {
+        try (GameEngine engine = new GameEngine(); GameServer server = new GameServer(engine, 0)) {
+            server.start();
+            try (Client owner = new Client(server.getPort()); Client guest = new Client(server.getPort())) {
+                String session = owner.send("NEW 4 6 3").get(0).split(" ")[1];
+                owner.send("A1");
+                List<String> joined = guest.send("JOIN " + session);
+                assertEquals(owner.send("SHOW"), joined);
+            }
+        }
+    }
+
+    @Test
+    void testSessionEndsWithItsLastPlayer() throws Exception {
+        try (GameEngine engine = new GameEngine(); GameServer server = new GameServer(engine, 0)) {
+            server.start();
+            try (Client guest = new Client(server.getPort())) {
+                String session;
+                try (Client owner = new Client(server.getPort())) {
+                    session = owner.send("NEW 4 6 3").get(0).split(" ")[1];
+                    guest.send("JOIN " + session);
+                    guest.send("JOIN " + session);
+                    assertEquals("OK BYE", owner.send("QUIT").get(0));
+                }
+                // Give the owner's connection time to clean up; the guest keeps the game alive
+                Thread.sleep(200);
+                assertEquals(1, engine.getSessionCount());
+                assertTrue(guest.send("A1").get(0).startsWith("OK " + session));
+                assertEquals("OK BYE", guest.send("QUIT").get(0));
+            }
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while (engine.getSessionCount() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(0, engine.getSessionCount());
+        }
+    }
+
+    @Test
+    void testRecoveredSessionEndsWithItsLastPlayer() throws Exception {
+        // A session the engine starts with, as if recovered from a journal
+        SessionRegistry sessions = new SessionRegistry();
+        String session = "8000000000000001";
+        sessions.put(session, Board.create(5, 3, 1L));
+        try (GameEngine engine = new GameEngine(sessions, new BoardPool()); GameServer server = new GameServer(engine, 0)) {
+            server.start();
+            try (Client first = new Client(server.getPort()); Client second = new Client(server.getPort())) {
+                assertTrue(first.send("JOIN " + session).get(0).startsWith("OK " + session));
+                assertTrue(second.send("JOIN " + session).get(0).startsWith("OK " + session));
+                assertEquals("OK BYE", first.send("QUIT").get(0));
+                Thread.sleep(200);
+                assertEquals(1, engine.getSessionCount());
+                assertEquals("OK BYE", second.send("QUIT").get(0));
+            }
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while (engine.getSessionCount() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(0, engine.getSessionCount());
+        }
+    }
+
+    @Test
+    void testDeltaModeSendsChangedCells() throws Exception {
+        try (GameEngine engine = new GameEngine(); GameServer server = new GameServer(engine, 0)) {
+            server.start();
+            try (Client client = new Client(server.getPort())) {
+                String session = client.send("NEW 6 1").get(0).split(" ")[1];
+                assertEquals(List.of("OK MODE DELTA"), client.send("mode delta"));
+                List<String> revealed = client.send("C3");
+                assertEquals(2, revealed.size());
+                assertTrue(revealed.get(0).startsWith("OK " + session));
+                assertTrue(revealed.get(1).matches("([A-F][1-6]=[0-8*]( |$))+"), revealed.get(1));
+                assertEquals(1, client.send("C3").size());
+                assertTrue(client.send("MODE SIDEWAYS").get(0).startsWith("ERR "));
+                assertEquals(List.of("OK MODE FULL"), client.send("MODE FULL"));
+                assertEquals(1 + 1 + 6, client.send("C3").size());
+            }
+        }
+    }
+
+    @Test
+    void testDeltaModeIncludesOtherPlayersMoves() throws Exception {
+        SessionRegistry sessions = new SessionRegistry();
+        String session = "8000000000000002";
+        Board board = Board.create(6, 1, 7L);
+        sessions.put(session, board);
+        Position safe = new Position(0, 0);
+        while (board.getCell(safe).isMine()) {
+            safe = new Position(0, safe.col() + 1);
+        }
+        String label = "A" + (safe.col() + 1);
+        try (GameEngine engine = new GameEngine(sessions, new BoardPool()); GameServer server = new GameServer(engine, 0)) {
+            server.start();
+            try (Client owner = new Client(server.getPort()); Client guest = new Client(server.getPort())) {
+                owner.send("JOIN " + session);
+                guest.send("JOIN " + session);
+                owner.send("MODE DELTA");
+                guest.send("MODE DELTA");
+                List<String> guestMove = guest.send(label);
+                assertEquals(2, guestMove.size());
+                // The owner's move changes nothing, but the owner has not seen the guest's yet
+                List<String> ownerMove = owner.send(label);
+                assertEquals(guestMove, ownerMove);
+                assertEquals(1, owner.send(label).size());
+            }
+        }
+    }
+
+    @Test
+    void testManyConcurrentClients() throws Exception {
+        try (GameEngine engine = new GameEngine(); GameServer server = new GameServer(engine, 0);
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            server.start();
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                results.add(clients.submit(() -> {
+                    try (Client client = new Client(server.getPort())) {
+                        String session = client.send("NEW 9 10").get(0).split(" ")[1];
+                        for (String move : List.of("A1", "E5", "I9")) {
+                            if (!client.send(move).get(0).startsWith("OK " + session)) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        }
+    }
+
+    private static final class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final PrintWriter out;
+
+        private Client(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+        }
+
+        private List<String> send(String command) throws IOException {
+            out.println(command);
+            List<String> lines = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null && !line.isEmpty()) {
+                lines.add(line);
+            }
+            return lines;
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.minesweeper.sim;
+
+import com.minesweeper.Board;
+import com.minesweeper.Position;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+
+class SimulatorTest {
+    @Test
+    void testResultsAddUp() {
+        SimulationResult result = new Simulator(5, 5, 3, RandomMoveStrategy::new, 2).run(1_000, 1L);
+        assertEquals(1_000, result.games());
+        assertEquals(result.games(), result.wins() + result.losses());
+        assertTrue(result.moves() >= result.games());
+        assertTrue(result.winRate() > 0 && result.winRate() < 1);
+    }
+
+    @Test
+    void testSameSeedSameResultAtAnyParallelism() {
+        SimulationResult single = new Simulator(6, 6, 5, RandomMoveStrategy::new, 1).run(2_000, 7L);
+        SimulationResult parallel = new Simulator(6, 6, 5, RandomMoveStrategy::new, 4).run(2_000, 7L);
+        assertEquals(single.wins(), parallel.wins());
+        assertEquals(single.moves(), parallel.moves());
+    }
+
+    @Test
+    void testRandomStrategyPicksHiddenCells() {
+        Board board = Board.create(4, 1, 3L);
+        SplittableRandom random = new SplittableRandom(3L);
+        RandomMoveStrategy strategy = new RandomMoveStrategy();
+        for (int i = 0; i < 50; i++) {
+            Position move = strategy.nextMove(board, random);
+            assertFalse(board.getCell(move).isRevealed());
+        }
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new Simulator(1, 5, 1, RandomMoveStrategy::new));
+        assertThrows(IllegalArgumentException.class, () -> new Simulator(5, 5, 1, RandomMoveStrategy::new, 0));
+    }
+
+    @Test
+    void testCommandPrintsSummary() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SimulationCommand.run(new String[] {"--simulate", "--games=100", "--rows=4", "--columns=4",
+            "--mines=2", "--seed=1", "--threads=1"}, new PrintStream(bytes));
+        assertTrue(bytes.toString().contains("games=100"));
+        assertThrows(IllegalArgumentException.class,
+            () -> SimulationCommand.run(new String[] {"--simulate", "--strategy=psychic"}, System.out));
+    }
+}
@@ -0,0 +1,123 @@
+package com.minesweeper.solver;
+
+import com.minesweeper.Board;
+import com.minesweeper.Cell;
+import com.minesweeper.GameState;
+import com.minesweeper.Position;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+class ConstraintSolverTest {
+    @Test
+    void testSingleCellRule() {
+        // Mine at A1; once B1, A2 and B2 show 1 the only hidden cell must be the mine
+        Board board = layout(new String[] {"*.", ".."}, "");
+        ConstraintSolver solver = new ConstraintSolver(2, 2);
+        board = board.reveal(new Position(1, 0));
+        solver.update(board, new Position(1, 0));
+        assertTrue(solver.getMines().isEmpty());
+        board = board.reveal(new Position(0, 1));
+        solver.update(board, new Position(0, 1));
+        assertTrue(solver.getMines().isEmpty());
+        assertTrue(solver.getSafeCells().isEmpty());
+        board = board.reveal(new Position(1, 1));
+        solver.update(board, new Position(1, 1));
+        assertEquals(List.of(new Position(0, 0)), solver.getMines());
+    }
+
+    @Test
+    void testPairRule() {
+        // Bottom row shows 1 2 1 under hidden cells with mines at A1 and A3
+        Board board = layout(new String[] {"*.*", "..."}, "B");
+        ConstraintSolver solver = new ConstraintSolver(2, 3);
+        solver.update(board);
+        assertEquals(List.of(new Position(0, 0), new Position(0, 2)), solver.getMines());
+        assertEquals(List.of(new Position(0, 1)), solver.getSafeCells());
+    }
+
+    @Test
+    void testCascadeIsFollowed() {
+        Board board = layout(new String[] {"....", "....", "....", "...*"}, "");
+        ConstraintSolver solver = new ConstraintSolver(4, 4);
+        board = board.reveal(new Position(0, 0));
+        solver.update(board, new Position(0, 0));
+        assertTrue(solver.isRevealed(new Position(2, 2)));
+        assertEquals(GameState.WON, board.getGameState());
+    }
+
+    @Test
+    void testEveryCellOfAMoveIsTakenIn() {
+        // revealAll uncovers three separate numbers in one move
+        Board board = layout(new String[] {"*.", ".."}, "");
+        ConstraintSolver solver = new ConstraintSolver(2, 2);
+        board = board.revealAll(List.of(new Position(1, 0), new Position(0, 1), new Position(1, 1)));
+        solver.update(board, new Position(1, 0));
+        assertEquals(List.of(new Position(0, 0)), solver.getMines());
+
+        // A chord on a number opens cells around it, including a cascade it does not start from
+        board = layout(new String[] {"*..", "...", "..."}, "");
+        solver = new ConstraintSolver(3, 3);
+        board = board.reveal(new Position(1, 1));
+        solver.update(board, new Position(1, 1));
+        board = board.flag(new Position(0, 0)).chord(new Position(1, 1));
+        solver.update(board, new Position(1, 1));
+        assertTrue(solver.isRevealed(new Position(2, 2)));
+        assertTrue(solver.isRevealed(new Position(0, 2)));
+        assertEquals(GameState.WON, board.getGameState());
+    }
+
+    @Test
+    void testDeductionsAreSoundOnRandomBoards() {
+        Random random = new Random(17);
+        for (int game = 0; game < 200; game++) {
+            Board board = Board.create(12, 24, random.nextLong());
+            ConstraintSolver solver = new ConstraintSolver(12, 12);
+            Position move = new Position(random.nextInt(12), random.nextInt(12));
+            while (board.getGameState() == GameState.PLAYING) {
+                board = board.reveal(move);
+                solver.update(board, move);
+                for (Position mine : solver.getMines()) {
+                    assertTrue(board.getCell(mine).isMine());
+                }
+                for (Position safe : solver.getSafeCells()) {
+                    assertFalse(board.getCell(safe).isMine());
+                    assertFalse(board.getCell(safe).isRevealed());
+                }
+                List<Position> safeCells = solver.getSafeCells();
+                if (safeCells.isEmpty()) {
+                    break;
+                }
+                move = safeCells.get(0);
+            }
+        }
+    }
+
+    /**
+     * Builds a board from a layout of '.' and '*' with the listed row letters revealed.
+     */
+    static Board layout(String[] layout, String revealedRows) {
+        int rows = layout.length;
+        int columns = layout[0].length();
+        Cell[][] grid = new Cell[rows][columns];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                int count = 0;
+                for (Position p : new Position(r, c).getAdjacentPositions(rows, columns)) {
+                    if (layout[p.row()].charAt(p.col()) == '*') count++;
+                }
+                grid[r][c] = new Cell.Builder(r, c)
+                    .setMine(layout[r].charAt(c) == '*')
+                    .setAdjacentMines(count)
+                    .setRevealed(revealedRows.indexOf('A' + r) >= 0)
+                    .build();
+            }
+        }
+        return new Board(rows, columns, grid, GameState.PLAYING, new Random());
+    }
+}
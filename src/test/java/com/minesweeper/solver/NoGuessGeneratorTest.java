@@ -0,0 +1,75 @@
+package com.minesweeper.solver;
+
+import com.minesweeper.Board;
+import com.minesweeper.Position;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+
+class NoGuessGeneratorTest {
+    @Test
+    void testGeneratedBoardIsSolvableFromFirstClick() {
+        Position firstClick = new Position(4, 4);
+        for (long seed = 0; seed < 10; seed++) {
+            Board board = Board.createNoGuess(9, 10, firstClick, seed);
+            assertEquals(10, board.getMineCount());
+            assertFalse(board.getCell(firstClick).isRevealed());
+            assertEquals(0, board.getCell(firstClick).getAdjacentMines());
+            assertTrue(NoGuessGenerator.isSolvableWithoutGuessing(board, firstClick));
+        }
+    }
+
+    @Test
+    void testResultDoesNotDependOnParallelism() {
+        Position firstClick = new Position(0, 0);
+        NoGuessGenerator sequential = new NoGuessGenerator(ForkJoinPool.commonPool(), 1, 10_000);
+        NoGuessGenerator parallel = new NoGuessGenerator(new ForkJoinPool(4), 4, 10_000);
+        for (long seed = 0; seed < 5; seed++) {
+            Board expected = sequential.generate(16, 16, 40, firstClick, seed);
+            Board actual = parallel.generate(16, 16, 40, firstClick, seed);
+            assertEquals(expected.toString(), actual.toString());
+            assertEquals(expected.reveal(firstClick).toString(), actual.reveal(firstClick).toString());
+        }
+    }
+
+    @Test
+    void testGuessRequiredBoardIsRejected() {
+        // The two cells in the corner are indistinguishable: one holds the mine
+        Board board = ConstraintSolverTest.layout(new String[] {
+            "*.",
+            "..",
+            "..",
+        }, "");
+        assertFalse(NoGuessGenerator.isSolvableWithoutGuessing(board, new Position(2, 0)));
+    }
+
+    @Test
+    void testStatsAndAttemptLimit() {
+        NoGuessGenerator generator = new NoGuessGenerator(ForkJoinPool.commonPool(), 2, 3);
+        // Three mines in the six cells past the opening always leave a pair that needs a guess
+        assertThrows(IllegalStateException.class, () -> generator.generate(2, 5, 3, new Position(0, 0), 1));
+        NoGuessGenerator.Stats stats = generator.getStats();
+        assertEquals(0, stats.boards());
+        assertEquals(stats.attempts(), stats.rejections());
+        assertEquals(3, stats.attempts());
+
+        NoGuessGenerator easy = new NoGuessGenerator(ForkJoinPool.commonPool(), 2, 1_000);
+        easy.generate(9, 9, 10, new Position(4, 4), 7);
+        NoGuessGenerator.Stats easyStats = easy.getStats();
+        assertEquals(1, easyStats.boards());
+        assertTrue(easyStats.attempts() >= 1);
+        assertTrue(easyStats.rejectionRate() < 1);
+        assertTrue(easyStats.maxLatencyNanos() > 0);
+    }
+
+    @Test
+    void testInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> Board.createNoGuess(9, 10, new Position(9, 0), 1));
+        assertThrows(IllegalArgumentException.class, () -> Board.createNoGuess(2, 1, new Position(0, 0), 1));
+    }
+}
@@ -0,0 +1,208 @@
+package com.minesweeper.solver;
+
+import com.minesweeper.Board;
+import com.minesweeper.GameState;
+import com.minesweeper.Position;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+class ProbabilityCalculatorTest {
+    @Test
+    void testUniformBeforeFirstMove() {
+        ConstraintSolver solver = new ConstraintSolver(5, 5);
+        MineProbabilities probabilities = new ProbabilityCalculator().compute(solver, 5);
+        assertEquals(0.2, probabilities.get(new Position(2, 3)), 1e-12);
+        assertTrue(probabilities.isExact());
+    }
+
+    @Test
+    void testMatchesBruteForceEnumeration() {
+        ProbabilityCalculator calculator = new ProbabilityCalculator();
+        Random random = new Random(23);
+        int size = 5;
+        int mines = 5;
+        for (int game = 0; game < 40; game++) {
+            Board board = Board.create(size, mines, random.nextLong());
+            ConstraintSolver solver = new ConstraintSolver(size, size);
+            // Reveal a few safe cells so there is a frontier to reason about
+            for (int move = 0; move < 3 && board.getGameState() == GameState.PLAYING; move++) {
+                Position pos;
+                do {
+                    pos = new Position(random.nextInt(size), random.nextInt(size));
+                } while (board.getCell(pos).isMine() || board.getCell(pos).isRevealed());
+                board = board.reveal(pos);
+                solver.update(board, pos);
+            }
+            if (board.getGameState() != GameState.PLAYING) {
+                continue;
+            }
+            MineProbabilities probabilities = calculator.compute(solver, mines);
+            double[] expected = bruteForce(board, size, mines);
+            for (int i = 0; i < size * size; i++) {
+                assertEquals(expected[i], probabilities.get(new Position(i / size, i % size)), 1e-9);
+            }
+            assertFalse(board.getCell(probabilities.getSafestCell()).isRevealed());
+        }
+    }
+
+    @Test
+    void testSamplingFallbackOverBudget() {
+        ProbabilityCalculator calculator = new ProbabilityCalculator(ForkJoinPool.commonPool(), 1,
+            Duration.ofSeconds(1), 200);
+        // Two hidden cells behind a pair of 1s: either could be the mine
+        Board board = ConstraintSolverTest.layout(new String[] {"*.", ".."}, "B");
+        ConstraintSolver solver = new ConstraintSolver(2, 2);
+        solver.update(board);
+        MineProbabilities probabilities = calculator.compute(solver, 1);
+        assertFalse(probabilities.isExact());
+        assertEquals(0.5, probabilities.get(new Position(0, 0)), 0.1);
+        assertEquals(0.5, probabilities.get(new Position(0, 1)), 0.1);
+    }
+
+    @Test
+    void testSamplingIsUnbiased() {
+        // Enough samples for estimates within a few percent of the exact probabilities
+        ProbabilityCalculator calculator = new ProbabilityCalculator(ForkJoinPool.commonPool(), 1,
+            Duration.ofSeconds(10), 50_000);
+        Random random = new Random(5);
+        int size = 5;
+        int mines = 6;
+        int checked = 0;
+        for (int game = 0; game < 10; game++) {
+            Board board = Board.create(size, mines, random.nextLong());
+            ConstraintSolver solver = new ConstraintSolver(size, size);
+            Position pos;
+            do {
+                pos = new Position(random.nextInt(size), random.nextInt(size));
+            } while (board.getCell(pos).isMine());
+            board = board.reveal(pos);
+            solver.update(board, pos);
+            if (board.getGameState() != GameState.PLAYING) {
+                continue;
+            }
+            MineProbabilities probabilities = calculator.compute(solver, mines);
+            double[] expected = bruteForce(board, size, mines);
+            for (int i = 0; i < size * size; i++) {
+                assertEquals(expected[i], probabilities.get(new Position(i / size, i % size)), 0.03);
+            }
+            checked++;
+        }
+        assertTrue(checked > 0);
+    }
+
+    @Test
+    void testUniformWhenSamplingHasNoTime() {
+        ProbabilityCalculator calculator = new ProbabilityCalculator(ForkJoinPool.commonPool(), 1,
+            Duration.ZERO, 200);
+        Board board = ConstraintSolverTest.layout(new String[] {"*.", ".."}, "B");
+        ConstraintSolver solver = new ConstraintSolver(2, 2);
+        solver.update(board);
+        MineProbabilities probabilities = calculator.compute(solver, 1);
+        assertFalse(probabilities.isExact());
+        assertEquals(0.5, probabilities.get(new Position(0, 0)), 1e-12);
+    }
+
+    @Test
+    void testLargeFrontierStaysWithinBudget() {
+        // Mines alternate between the top and bottom rows behind a revealed middle row of 2s and
+        // 3s, which neither rule can resolve: one component of 3,000 cells, all sampled
+        int columns = 1500;
+        String top = "*.".repeat(columns / 2);
+        String bottom = ".*".repeat(columns / 2);
+        Board board = ConstraintSolverTest.layout(new String[] {top, ".".repeat(columns), bottom}, "B");
+        ConstraintSolver solver = new ConstraintSolver(3, columns);
+        solver.update(board);
+        assertTrue(solver.getMines().isEmpty() && solver.getSafeCells().isEmpty());
+        ProbabilityCalculator calculator = new ProbabilityCalculator(ForkJoinPool.commonPool(), 64,
+            Duration.ofMillis(200), 2_000);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocated = threads.getTotalThreadAllocatedBytes();
+        long start = System.nanoTime();
+        MineProbabilities probabilities = calculator.compute(solver, columns);
+        long elapsed = System.nanoTime() - start;
+        allocated = threads.getTotalThreadAllocatedBytes() - allocated;
+
+        assertFalse(probabilities.isExact());
+        assertTrue(elapsed < Duration.ofSeconds(5).toNanos(), elapsed + "ns");
+        // Per-count cell tables alone would take 3,000 x 3,001 doubles, about 72 MB
+        assertTrue(allocated < 32 << 20, allocated + " bytes");
+        double expectedMines = 0;
+        for (int r = 0; r < 3; r += 2) {
+            for (int c = 0; c < columns; c++) {
+                double p = probabilities.get(new Position(r, c));
+                assertTrue(p >= 0 && p <= 1, "probability " + p);
+                expectedMines += p;
+            }
+        }
+        assertEquals(columns, expectedMines, 1e-6 * columns);
+    }
+
+    /**
+     * Counts every placement of the mines consistent with the revealed numbers.
+     */
+    private static double[] bruteForce(Board board, int size, int mines) {
+        int cells = size * size;
+        long[] mineCounts = new long[cells];
+        long total = 0;
+        int[] chosen = new int[mines];
+        for (int i = 0; i < mines; i++) {
+            chosen[i] = i;
+        }
+        while (true) {
+            boolean[] layout = new boolean[cells];
+            for (int c : chosen) {
+                layout[c] = true;
+            }
+            if (consistent(board, size, layout)) {
+                total++;
+                for (int c : chosen) {
+                    mineCounts[c]++;
+                }
+            }
+            int i = mines - 1;
+            while (i >= 0 && chosen[i] == cells - mines + i) {
+                i--;
+            }
+            if (i < 0) {
+                break;
+            }
+            chosen[i]++;
+            for (int j = i + 1; j < mines; j++) {
+                chosen[j] = chosen[j - 1] + 1;
+            }
+        }
+        double[] probabilities = new double[cells];
+        for (int i = 0; i < cells; i++) {
+            probabilities[i] = (double) mineCounts[i] / total;
+        }
+        return probabilities;
+    }
+
+    private static boolean consistent(Board board, int size, boolean[] layout) {
+        for (int i = 0; i < size * size; i++) {
+            Position pos = new Position(i / size, i % size);
+            if (!board.getCell(pos).isRevealed()) {
+                continue;
+            }
+            if (layout[i]) {
+                return false;
+            }
+            int count = 0;
+            for (Position adj : pos.getAdjacentPositions(size)) {
+                if (layout[adj.row() * size + adj.col()]) count++;
+            }
+            if (count != board.getCell(pos).getAdjacentMines()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}